@@ -2,13 +2,10 @@ package com.reactnativecommunity.webview;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Bundle;
-import android.os.Parcel;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.view.ActionMode;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -35,13 +32,17 @@ import com.facebook.react.bridge.CatalystInstance;
 import com.facebook.react.bridge.JavaScriptModule;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeArray;
 import com.facebook.react.bridge.WritableNativeMap;
+import com.facebook.react.modules.blob.BlobModule;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.UIManagerHelper;
 import com.facebook.react.uimanager.events.ContentSizeChangeEvent;
 import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.views.scroll.OnScrollDispatchHelper;
 import com.facebook.react.views.scroll.ScrollEvent;
 import com.facebook.react.views.scroll.ScrollEventType;
@@ -52,20 +53,117 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class RNCWebView extends WebView implements LifecycleEventListener {
+    private static final String TAG = "RNCWebView";
+    private static final String BINARY_MESSAGE_TYPE = "application/octet-stream";
     protected @Nullable
     String injectedJS;
     protected @Nullable
     String injectedJSBeforeContentLoaded;
     protected static final String JAVASCRIPT_INTERFACE = "ReactNativeWebView";
+    /**
+     * Channel for internal signals sent by the scripts this library injects (e.g. pull-to-refresh
+     * toggles). Kept apart from `ReactNativeWebView` so page messages never have to be inspected.
+     */
+    protected static final String CONTROL_INTERFACE = "ReactNativeWebViewControl";
+    protected static final String CONTROL_DISABLE_REFRESH = "disable_refresh";
+    protected static final String CONTROL_ENABLE_REFRESH = "enable_refresh";
+    /**
+     * Posted on the bridge by the reply listener script when a document starts, so that the reply
+     * proxy is only ever taken from the current document.
+     */
+    protected static final String DOCUMENT_STARTED_MESSAGE = "__rnwv_document_started__";
+    protected static final Set<String> ALL_ORIGINS = Set.of("*");
+    /**
+     * Parses page messages for all WebViews when `parseJsonMessages` is set. A single thread keeps
+     * the messages of each WebView in order.
+     */
+    private static final ExecutorService JSON_PARSER_EXECUTOR = Executors.newSingleThreadExecutor();
     protected @Nullable
     RNCWebViewBridge fallbackBridge;
     protected @Nullable
+    RNCWebViewControlBridge fallbackControlBridge;
+    protected @Nullable
+    RNCWebViewChunkBridge fallbackChunkBridge;
+    protected @Nullable
     WebViewCompat.WebMessageListener bridgeListener = null;
+    protected @Nullable
+    WebViewCompat.WebMessageListener controlListener = null;
+    protected @Nullable
+    WebViewCompat.WebMessageListener rpcListener = null;
+    protected @Nullable
+    WebViewCompat.WebMessageListener chunkListener = null;
+    /**
+     * Reply channel to the main frame of the current document, captured from the
+     * {@link #DOCUMENT_STARTED_MESSAGE} it posted. Used to send messages to the page without
+     * evaluating a script for each one. Other messages never set it: the previous document can
+     * still post, e.g. from a pagehide handler, after the next one started loading.
+     */
+    protected @Nullable
+    JavaScriptReplyProxy mainFrameReplyProxy = null;
+    protected boolean replyListenerInstalled = false;
+    /**
+     * Whether the current document has the reply listener, i.e. started loading after it was
+     * installed. Document-start scripts do not run in the document that is already loaded.
+     */
+    protected boolean replyListenerInDocument = false;
+    protected boolean chunkScriptAtDocumentStart = false;
+    /**
+     * Origins allowed to post to the injected objects, in the format of
+     * {@link WebViewCompat#addWebMessageListener}.
+     */
+    protected volatile Set<String> messageOriginRules = ALL_ORIGINS;
+    /**
+     * URL of the current document, tracked from navigation callbacks so that it can be read from
+     * the JavascriptInterface thread without a hop to the UI thread for `getUrl()`.
+     */
+    protected volatile @Nullable
+    String currentUrl;
+    protected final RNCWebViewChunkAssembler messageChunkAssembler = new RNCWebViewChunkAssembler(this);
+    protected final RNCWebViewMessageChannels messageChannels = new RNCWebViewMessageChannels(this);
+    protected List<String> messageGroups = new ArrayList<>();
+    protected final RNCWebViewValueStore valueStore = new RNCWebViewValueStore(this);
+    protected @Nullable
+    RNCWebViewNavigationRules navigationRules;
+    protected final RNCWebViewNavigationDecisionCache navigationDecisionCache = new RNCWebViewNavigationDecisionCache();
+    final RNCWebViewNavigationDecisions.Host navigationDecisionHost = new RNCWebViewNavigationDecisions.Host() {
+        @Override
+        public RNCWebViewNavigationDecisionCache getDecisionCache() {
+            return navigationDecisionCache;
+        }
+
+        @Override
+        public void onDecisionReceived(long latencyNanos) {
+            navigationMetrics.onDecisionReceived(latencyNanos);
+        }
+
+        @Override
+        public void finishDeferred(String url, @Nullable Map<String, String> headers, boolean shouldStart) {
+            post(() -> {
+                progressChangedFilter.setWaitingForCommandLoadUrl(false);
+                if (!shouldStart) {
+                    return;
+                }
+                if (headers != null) {
+                    loadUrl(url, headers);
+                } else {
+                    loadUrl(url);
+                }
+            });
+        }
+    };
+    protected long shouldStartLoadTimeoutMs = RNCWebViewNavigationDecisions.DEFAULT_TIMEOUT_MS;
+    protected RNCWebViewNavigationDecisions.TimeoutPolicy shouldStartLoadTimeoutPolicy = RNCWebViewNavigationDecisions.TimeoutPolicy.ALLOW;
+    protected boolean hasShouldStartLoadTimeoutListener = false;
+    protected boolean shouldStartLoadAsync = false;
 
     /**
      * android.webkit.WebChromeClient fundamentally does not support JS injection into frames other
@@ -79,8 +177,20 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
     String messagingModuleName;
     protected @Nullable
     RNCWebViewMessagingModule mMessagingJSModule;
-    protected @Nullable
+    protected volatile @Nullable
     RNCWebViewClient mRNCWebViewClient;
+    protected @Nullable
+    RNCWebViewMessageBatcher messageBatcher;
+    protected @Nullable
+    RNCWebViewMessageQueue messageQueue;
+    protected @Nullable
+    RNCWebViewMessageReplayBuffer messageReplayBuffer;
+    protected final RNCWebViewBridgeMetrics bridgeMetrics = new RNCWebViewBridgeMetrics();
+    protected final RNCWebViewNavigationMetrics navigationMetrics = new RNCWebViewNavigationMetrics();
+    private @Nullable EventDispatcher mMessageEventDispatcher;
+    private int mSurfaceId = -1;
+    protected boolean leanMessageEvents = false;
+    protected boolean parseJsonMessages = false;
     protected boolean sendContentSizeChangeEvents = false;
     private OnScrollDispatchHelper mOnScrollDispatchHelper;
     protected boolean hasScrollEvent = false;
@@ -145,6 +255,34 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
         mRNCWebViewClient.setBasicAuthCredential(credential);
     }
 
+    void setNavigationRules(@Nullable RNCWebViewNavigationRules navigationRules) {
+        this.navigationRules = navigationRules;
+    }
+
+    public void setShouldStartLoadTimeout(long timeoutMs) {
+        this.shouldStartLoadTimeoutMs = timeoutMs;
+    }
+
+    void setShouldStartLoadTimeoutPolicy(RNCWebViewNavigationDecisions.TimeoutPolicy policy) {
+        this.shouldStartLoadTimeoutPolicy = policy;
+    }
+
+    public void setHasShouldStartLoadTimeoutListener(boolean hasListener) {
+        this.hasShouldStartLoadTimeoutListener = hasListener;
+    }
+
+    public void setShouldStartLoadAsync(boolean async) {
+        this.shouldStartLoadAsync = async;
+    }
+
+    public void setParseJsonMessages(boolean parseJsonMessages) {
+        this.parseJsonMessages = parseJsonMessages;
+    }
+
+    public void setLeanMessageEvents(boolean leanMessageEvents) {
+        this.leanMessageEvents = leanMessageEvents;
+    }
+
     public void setSendContentSizeChangeEvents(boolean sendContentSizeChangeEvents) {
         this.sendContentSizeChangeEvents = sendContentSizeChangeEvents;
     }
@@ -273,9 +411,19 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
         if (client instanceof RNCWebViewClient) {
             mRNCWebViewClient = (RNCWebViewClient) client;
             mRNCWebViewClient.setProgressChangedFilter(progressChangedFilter);
+            resetMessagesInFlight();
+            replayBufferedMessages();
         }
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // The view may have been moved to another surface while it was detached.
+        mMessageEventDispatcher = null;
+        replayBufferedMessages();
+    }
+
     WebChromeClient mWebChromeClient;
     @Override
     public void setWebChromeClient(WebChromeClient client) {
@@ -299,29 +447,490 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
         return this.messagingEnabled;
     }
 
+    /**
+     * Replaces the batcher used to deliver page messages, flushing any messages still pending in
+     * the previous one. Passing {@code null} restores one event per message.
+     */
+    void setMessageBatcher(@Nullable RNCWebViewMessageBatcher batcher) {
+        if (messageBatcher != null) {
+            messageBatcher.flush();
+        }
+        messageBatcher = batcher;
+    }
+
+    /**
+     * Replaces the bounded queue page messages wait in until JS is ready for them. Messages still
+     * waiting in the previous queue are dropped. Passing {@code null} delivers messages right away.
+     */
+    void setMessageQueue(@Nullable RNCWebViewMessageQueue queue) {
+        if (messageQueue != null) {
+            messageQueue.release();
+        }
+        messageQueue = queue;
+    }
+
+    /**
+     * Stops waiting for acknowledgements of messages handed to JS before the page or the client
+     * changed.
+     */
+    protected void resetMessagesInFlight() {
+        if (messageQueue != null) {
+            messageQueue.resetInFlight();
+        }
+    }
+
+    @Nullable
+    RNCWebViewMessageQueue getMessageQueue() {
+        return messageQueue;
+    }
+
+    /**
+     * Replaces the buffer that holds page messages while they cannot be dispatched. Messages still
+     * in the previous buffer are replayed if possible, dropped otherwise. Passing {@code null}
+     * drops such messages as they arrive.
+     */
+    void setMessageReplayBuffer(@Nullable RNCWebViewMessageReplayBuffer buffer) {
+        replayBufferedMessages();
+        if (messageReplayBuffer != null) {
+            messageReplayBuffer.clear();
+        }
+        messageReplayBuffer = buffer;
+    }
+
+    /**
+     * Whether page messages can reach JS right now: the client is set and the view is attached to
+     * its {@link RNCWebViewWrapper}, so events have a valid react tag.
+     */
+    protected boolean canDispatchMessages() {
+        return mRNCWebViewClient != null && RNCWebViewWrapper.getReactTagFromWebView(this) != -1;
+    }
+
+    private void replayBufferedMessages() {
+        if (messageReplayBuffer != null && !messageReplayBuffer.isEmpty() && canDispatchMessages()) {
+            messageReplayBuffer.replay();
+        }
+    }
+
     protected void createRNCWebViewBridge(RNCWebView webView) {
-        if (WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_LISTENER)){
+        // Once the view fell back to the JavascriptInterface bridge it keeps using it.
+        if (fallbackBridge == null && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_LISTENER)){
           if (this.bridgeListener == null) {
             this.bridgeListener = new WebViewCompat.WebMessageListener() {
               @Override
               public void onPostMessage(@NonNull WebView view, @NonNull WebMessageCompat message, @NonNull Uri sourceOrigin, boolean isMainFrame, @NonNull JavaScriptReplyProxy replyProxy) {
-                RNCWebView.this.onMessage(message.getData(), sourceOrigin.toString());
+                byte[] arrayBuffer = RNCWebViewArrayBuffers.getArrayBuffer(message);
+                if (arrayBuffer != null) {
+                  RNCWebView.this.onBinaryMessage(arrayBuffer, sourceOrigin.toString(), isMainFrame);
+                  return;
+                }
+                String data = RNCWebViewArrayBuffers.getString(message);
+                if (DOCUMENT_STARTED_MESSAGE.equals(data)) {
+                  if (isMainFrame) {
+                    mainFrameReplyProxy = replyProxy;
+                  }
+                } else if (data != null) {
+                  RNCWebView.this.onMessage(data, sourceOrigin.toString(), isMainFrame, System.nanoTime(), false);
+                }
               }
             };
-            WebViewCompat.addWebMessageListener(
-              webView,
-              JAVASCRIPT_INTERFACE,
-              Set.of("*"),
-              this.bridgeListener
-            );
+            // The other channels only carry strings, anything else is dropped.
+            this.controlListener = (view, message, sourceOrigin, isMainFrame, replyProxy) -> {
+              String data = RNCWebViewArrayBuffers.getString(message);
+              if (data != null) {
+                RNCWebView.this.onControlMessage(data);
+              }
+            };
+            this.chunkListener = (view, message, sourceOrigin, isMainFrame, replyProxy) -> {
+              String data = RNCWebViewArrayBuffers.getString(message);
+              if (data != null) {
+                messageChunkAssembler.onChunk(replyProxy, data, sourceOrigin.toString(), isMainFrame, false);
+              }
+            };
+            if (WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
+              this.rpcListener = (view, message, sourceOrigin, isMainFrame, replyProxy) -> {
+                String data = RNCWebViewArrayBuffers.getString(message);
+                if (data != null) {
+                  RNCWebViewRpc.onFrame(RNCWebView.this, data, sourceOrigin.toString(), isMainFrame, replyProxy);
+                }
+              };
+            }
+            try {
+              registerMessageListeners(webView);
+            } catch (IllegalArgumentException e) {
+              FLog.e(TAG, "Invalid messageOriginAllowlist, falling back to the JavascriptInterface bridge.", e);
+              removeMessageListeners(webView);
+            }
+            if (this.bridgeListener != null) {
+              installMessagingScripts(webView);
+            }
           }
-        } else {
+        }
+        if (this.bridgeListener == null) {
           if (fallbackBridge == null) {
             fallbackBridge = new RNCWebViewBridge(webView);
             addJavascriptInterface(fallbackBridge, JAVASCRIPT_INTERFACE);
           }
+          if (fallbackControlBridge == null) {
+            fallbackControlBridge = new RNCWebViewControlBridge(webView);
+            addJavascriptInterface(fallbackControlBridge, CONTROL_INTERFACE);
+          }
+          if (fallbackChunkBridge == null) {
+            fallbackChunkBridge = new RNCWebViewChunkBridge(webView);
+            addJavascriptInterface(fallbackChunkBridge, RNCWebViewChunkAssembler.CHANNEL_NAME);
+          }
         }
         injectJavascriptObject();
+        // Document-start scripts only apply to the next document, set up the current one as well.
+        evaluateJavascriptWithFallback(RNCWebViewChunkAssembler.PAGE_SCRIPT);
+    }
+
+    /**
+     * Installs the document-start scripts that rely on the WebMessageListeners.
+     */
+    private void installMessagingScripts(RNCWebView webView) {
+        if (WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
+          WebViewCompat.addDocumentStartJavaScript(webView, RNCWebViewChunkAssembler.PAGE_SCRIPT, Set.of("*"));
+          chunkScriptAtDocumentStart = true;
+        }
+        installReplyListener(webView);
+        installRequestApi(webView);
+        if (WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT) && RNCWebViewMessageChannels.isSupported()) {
+          WebViewCompat.addDocumentStartJavaScript(webView, RNCWebViewMessageChannels.PAGE_SCRIPT, Set.of("*"));
+        }
+    }
+
+    /**
+     * (Re-)registers the WebMessageListeners behind the injected objects with the current
+     * {@link #messageOriginRules}. Chromium drops messages from other origins before they reach
+     * the app, and only injects the objects into matching frames, starting with the next document.
+     */
+    private void registerMessageListeners(RNCWebView webView) {
+        registerMessageListener(webView, JAVASCRIPT_INTERFACE, bridgeListener);
+        registerMessageListener(webView, CONTROL_INTERFACE, controlListener);
+        registerMessageListener(webView, RNCWebViewChunkAssembler.CHANNEL_NAME, chunkListener);
+        registerMessageListener(webView, RNCWebViewRpc.LISTENER_NAME, rpcListener);
+    }
+
+    /**
+     * Undoes a failed {@link #registerMessageListeners}, so that the view uses the
+     * JavascriptInterface bridge instead and the origin rules are checked by
+     * {@link #isMessageOriginAllowed()}.
+     */
+    private void removeMessageListeners(RNCWebView webView) {
+        WebViewCompat.removeWebMessageListener(webView, JAVASCRIPT_INTERFACE);
+        WebViewCompat.removeWebMessageListener(webView, CONTROL_INTERFACE);
+        WebViewCompat.removeWebMessageListener(webView, RNCWebViewChunkAssembler.CHANNEL_NAME);
+        if (rpcListener != null) {
+            WebViewCompat.removeWebMessageListener(webView, RNCWebViewRpc.LISTENER_NAME);
+        }
+        bridgeListener = null;
+        controlListener = null;
+        chunkListener = null;
+        rpcListener = null;
+    }
+
+    private void registerMessageListener(RNCWebView webView, String name, @Nullable WebViewCompat.WebMessageListener listener) {
+        if (listener == null) {
+            return;
+        }
+        WebViewCompat.removeWebMessageListener(webView, name);
+        WebViewCompat.addWebMessageListener(webView, name, messageOriginRules, listener);
+    }
+
+    /**
+     * Restricts which origins can post messages. {@code null} or an empty list allows every origin.
+     */
+    public void setMessageOriginAllowlist(@Nullable List<String> rules) {
+        Set<String> next = rules == null || rules.isEmpty() ? ALL_ORIGINS : new HashSet<>(rules);
+        if (next.equals(messageOriginRules)) {
+            return;
+        }
+
+        Set<String> previous = messageOriginRules;
+        messageOriginRules = next;
+        if (bridgeListener == null) {
+            // Not registered yet, createRNCWebViewBridge will use the new rules.
+            return;
+        }
+        try {
+            registerMessageListeners(this);
+        } catch (IllegalArgumentException e) {
+            FLog.e(TAG, "Invalid messageOriginAllowlist, keeping the previous rules.", e);
+            messageOriginRules = previous;
+            registerMessageListeners(this);
+        }
+    }
+
+    protected void setCurrentUrl(@Nullable String url) {
+        currentUrl = url;
+    }
+
+    /**
+     * Origin check for the JavascriptInterface fallback, which cannot be restricted in Chromium and
+     * cannot tell frames apart, so the URL of the main frame is checked. Safe to call from the
+     * JavascriptInterface thread.
+     */
+    protected boolean isMessageOriginAllowed() {
+        return matchesOriginRules(currentUrl, messageOriginRules);
+    }
+
+    /**
+     * Whether the origin of {@code url} matches one of {@code rules}, which are in the format of
+     * {@link WebViewCompat#addWebMessageListener}. For code paths Chromium cannot restrict itself.
+     */
+    static boolean matchesOriginRules(@Nullable String url, Set<String> rules) {
+        if (rules.contains("*")) {
+            return true;
+        }
+        Uri uri = url == null ? null : Uri.parse(url);
+        return uri != null && matchesOriginRules(uri.getScheme(), uri.getHost(), uri.getPort(), rules);
+    }
+
+    /**
+     * @param port the port given in the URL, {@code -1} for the default port of {@code scheme}
+     */
+    static boolean matchesOriginRules(@Nullable String scheme, @Nullable String host, int port, Set<String> rules) {
+        if (rules.contains("*")) {
+            return true;
+        }
+        if (scheme == null || host == null) {
+            return false;
+        }
+        for (String rule : rules) {
+            if (matchesOriginRule(scheme, host, port, rule)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesOriginRule(String scheme, String host, int port, String rule) {
+        int schemeEnd = rule.indexOf("://");
+        if (schemeEnd <= 0 || !scheme.equalsIgnoreCase(rule.substring(0, schemeEnd))) {
+            return false;
+        }
+
+        String authority = rule.substring(schemeEnd + 3);
+        int pathStart = authority.indexOf('/');
+        if (pathStart >= 0) {
+            authority = authority.substring(0, pathStart);
+        }
+        String ruleHost = authority;
+        int rulePort = -1;
+        int portStart = authority.lastIndexOf(':');
+        // IPv6 hosts are bracketed, only a colon after the closing bracket starts a port.
+        if (portStart > authority.lastIndexOf(']')) {
+            try {
+                rulePort = Integer.parseInt(authority.substring(portStart + 1));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            ruleHost = authority.substring(0, portStart);
+        }
+        if (ruleHost.isEmpty() || portOrDefault(scheme, port) != portOrDefault(scheme, rulePort)) {
+            return false;
+        }
+
+        return ruleHost.startsWith("*.")
+          ? host.toLowerCase(Locale.ROOT).endsWith(ruleHost.substring(1).toLowerCase(Locale.ROOT))
+          : host.equalsIgnoreCase(ruleHost);
+    }
+
+    /**
+     * The port of a URL, with the default port of its scheme when none is given, so that
+     * {@code https://example.com} and {@code https://example.com:443} compare equal.
+     */
+    private static int portOrDefault(String scheme, int port) {
+        if (port != -1) {
+            return port;
+        }
+        if ("http".equalsIgnoreCase(scheme) || "ws".equalsIgnoreCase(scheme)) {
+            return 80;
+        }
+        if ("https".equalsIgnoreCase(scheme) || "wss".equalsIgnoreCase(scheme)) {
+            return 443;
+        }
+        return -1;
+    }
+
+    /**
+     * Configures how messages sent with `ReactNativeWebView.postLargeMessage` are delivered, see
+     * {@link RNCWebViewChunkAssembler}.
+     */
+    void setMessageChunking(RNCWebViewChunkAssembler.Mode mode, int maxMessageSize) {
+        messageChunkAssembler.configure(mode, maxMessageSize);
+    }
+
+    /**
+     * Drops partially received chunked messages when a new document starts loading, and installs
+     * `postLargeMessage` on WebViews that cannot do it with a document-start script.
+     */
+    protected void prepareChunkedMessaging() {
+        messageChunkAssembler.clear();
+        if (messagingEnabled && !chunkScriptAtDocumentStart && getSettings().getJavaScriptEnabled()) {
+            evaluateJavascriptWithFallback(RNCWebViewChunkAssembler.PAGE_SCRIPT);
+        }
+    }
+
+    /**
+     * Whether pages can pass an ArrayBuffer to `ReactNativeWebView.postMessage`. Requires the
+     * WebMessageListener bridge; the JavascriptInterface fallback only accepts strings.
+     */
+    protected boolean isArrayBufferMessagingSupported() {
+        return bridgeListener != null && RNCWebViewArrayBuffers.isSupported();
+    }
+
+    /**
+     * Registers a document-start script that re-dispatches messages received on the injected
+     * `ReactNativeWebView` object as `message` events on `document`, which is where pages listen
+     * for messages sent with the `postMessage` command. The script then announces the document,
+     * which hands its reply proxy to {@link #postMessage}.
+     */
+    private void installReplyListener(RNCWebView webView) {
+        if (!WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
+            return;
+        }
+        String js = "(function () {\n" +
+          "  var bridge = window." + JAVASCRIPT_INTERFACE + ";\n" +
+          "  if (!bridge || bridge.__replyListenerInstalled) return;\n" +
+          "  bridge.__replyListenerInstalled = true;\n" +
+          "  bridge.addEventListener('message', function (e) {\n" +
+          "    var event;\n" +
+          "    try {\n" +
+          "      event = new MessageEvent('message', { data: e.data });\n" +
+          "    } catch (err) {\n" +
+          "      event = document.createEvent('MessageEvent');\n" +
+          "      event.initMessageEvent('message', true, true, e.data, '', '', null);\n" +
+          "    }\n" +
+          "    document.dispatchEvent(event);\n" +
+          "  });\n" +
+          "  bridge.postMessage('" + DOCUMENT_STARTED_MESSAGE + "');\n" +
+          "})();";
+        WebViewCompat.addDocumentStartJavaScript(webView, js, Set.of("*"));
+        replyListenerInstalled = true;
+    }
+
+    /**
+     * Exposes `ReactNativeWebView.request()` to pages, see {@link RNCWebViewRpc}. The page side of
+     * the API is installed by a document-start script, so it is only available when that feature is.
+     */
+    private void installRequestApi(RNCWebView webView) {
+        if (!WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
+            return;
+        }
+        WebViewCompat.addDocumentStartJavaScript(webView, RNCWebViewRpc.PAGE_SCRIPT, Set.of("*"));
+    }
+
+    /**
+     * Sends `data` to the page as a `message` event on `document`.
+     * <p>
+     * Once the main frame of the current document has announced itself, its reply proxy is used
+     * and the string is handed over as is. Until then, in the document that was loaded when
+     * messaging was enabled, or on WebViews without WebMessageListener support, the message is
+     * delivered by evaluating a small script.
+     */
+    public void postMessage(String data) {
+        postMessage(data, null);
+    }
+
+    /**
+     * @param script the result of {@link #createPostMessageScript} for `data` when the caller
+     *               already has it, e.g. because the same message goes to several WebViews
+     */
+    protected void postMessage(String data, @Nullable String script) {
+        bridgeMetrics.onMessagePosted(data);
+        if (canPostMessageDirectly()) {
+            mainFrameReplyProxy.postMessage(data);
+            return;
+        }
+
+        evaluateJavascriptWithFallback(script != null ? script : createPostMessageScript(data));
+    }
+
+    /**
+     * Whether {@link #postMessage} can hand the string to the page without building a script.
+     */
+    protected boolean canPostMessageDirectly() {
+        return replyListenerInDocument && mainFrameReplyProxy != null;
+    }
+
+    /**
+     * Script that dispatches `data` as a `message` event on `document`, for WebViews without a
+     * reply proxy.
+     */
+    static String createPostMessageScript(String data) {
+        try {
+            JSONObject eventInitDict = new JSONObject();
+            eventInitDict.put("data", data);
+            return "(function () {" +
+              "var event;" +
+              "var data = " + eventInitDict.toString() + ";" +
+              "try {" +
+              "event = new MessageEvent('message', data);" +
+              "} catch (e) {" +
+              "event = document.createEvent('MessageEvent');" +
+              "event.initMessageEvent('message', true, true, data.data, data.origin, data.lastEventId, data.source);" +
+              "}" +
+              "document.dispatchEvent(event);" +
+              "})();";
+        } catch (JSONException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Adds the view to the given broadcast groups, see {@link RNCWebViewMessageGroups}, and removes
+     * it from the groups it was in before.
+     */
+    public void setMessageGroups(@Nullable List<String> groups) {
+        List<String> next = groups == null ? new ArrayList<>() : groups;
+        RNCWebViewMessageGroups.update(this, messageGroups, next);
+        messageGroups = next;
+    }
+
+    /**
+     * Opens the named channel, see {@link RNCWebViewMessageChannels}. The page receives its end of
+     * the channel once the current document has loaded, and again after every navigation.
+     */
+    public void openMessageChannel(String name) {
+        messageChannels.open(name);
+    }
+
+    /**
+     * Sends `data` on the named channel. Dropped when the channel is not connected to the current
+     * document yet.
+     */
+    public void postChannelMessage(String name, String data) {
+        if (messageChannels.post(name, data)) {
+            bridgeMetrics.onMessagePosted(data);
+        } else {
+            FLog.w(TAG, "Dropping message for channel " + name + ", it is not connected to the page.");
+        }
+    }
+
+    public void closeMessageChannel(String name) {
+        messageChannels.close(name);
+    }
+
+    /**
+     * Delivers a message the page sent on a named channel. JS receives it with a `channel` entry
+     * holding the name of the channel.
+     */
+    protected void dispatchChannelMessage(String name, String data) {
+        if (mRNCWebViewClient == null) return;
+
+        WritableMap event = createMessageEvent(currentUrl, true);
+        event.putString("data", data);
+        event.putString("channel", name);
+        dispatchMessageEvent(event);
+    }
+
+    /**
+     * The reply proxy belongs to a single document, forget it when a new one starts loading.
+     */
+    protected void clearMainFrameReplyProxy() {
+        mainFrameReplyProxy = null;
+        replyListenerInDocument = replyListenerInstalled;
     }
 
     private void injectJavascriptObject() {
@@ -329,6 +938,7 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
         String js = "(function(){\n" +
           "    window." + JAVASCRIPT_INTERFACE + " = window." + JAVASCRIPT_INTERFACE + " || {};\n" +
           "    window." + JAVASCRIPT_INTERFACE + ".injectedObjectJson = function () { return " + (injectedJavaScriptObject == null ? null : ("`" + injectedJavaScriptObject + "`")) + "; };\n" +
+          "    window." + JAVASCRIPT_INTERFACE + ".arrayBufferSupported = " + isArrayBufferMessagingSupported() + ";\n" +
           "})();";
         evaluateJavascriptWithFallback(js);
       }
@@ -347,6 +957,22 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
         }
     }
 
+    /**
+     * Sets the values pages read from `window.ReactNativeWebViewStore`, starting with the next
+     * document, see {@link RNCWebViewValueStore}.
+     */
+    public void setNativeStoreValues(@Nullable String valuesJson) {
+        valueStore.setValues(valuesJson);
+    }
+
+    /**
+     * Sets the origins `window.ReactNativeWebViewStore` is injected into, starting with the next
+     * document. {@code null} or an empty list disables the store.
+     */
+    public void setNativeStoreOrigins(@Nullable List<String> origins) {
+        valueStore.setOrigins(origins);
+    }
+
     protected void evaluateJavascriptWithFallback(String script) {
         evaluateJavascript(script, null);
     }
@@ -383,7 +1009,7 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
     "      // Only disable refresh if the scroll is NOT at the top\n" +
     "      if (el.scrollTop > 0) {\n" +
     "        console.log('[event] touchstart (scrollTop > 0) → disable_refresh');\n" +
-    "        window.ReactNativeWebView?.postMessage('disable_refresh');\n" +
+    "        window." + CONTROL_INTERFACE + "?.postMessage('" + CONTROL_DISABLE_REFRESH + "');\n" +
     "      } else {\n" +
     "        console.log('[event] touchstart (scrollTop == 0) → allow swipe refresh');\n" +
     "      }\n" +
@@ -391,7 +1017,7 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
     "\n" +
     "    el.addEventListener('touchend', () => {\n" +
     "      console.log('[event] touchend → enable_refresh');\n" +
-    "      window.ReactNativeWebView?.postMessage('enable_refresh');\n" +
+    "      window." + CONTROL_INTERFACE + "?.postMessage('" + CONTROL_ENABLE_REFRESH + "');\n" +
     "    });\n" +
     "  }\n" +
     "\n" +
@@ -444,42 +1070,257 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
     }
 
     public void onMessage(String message, String sourceUrl) {
-        ThemedReactContext reactContext = getThemedReactContext();
-        RNCWebView mWebView = this;
-
-        if (mRNCWebViewClient != null) {
-            WebView webView = this;
-            webView.post(new Runnable() {
-                @Override
-                public void run() {
-                    if (mRNCWebViewClient == null) return;
-
-                  if (message.contains("disable_refresh")) {
-                    ((SwipeRefreshLayout) mWebView.getParent()).setEnabled(false);
-                    //swipeRefresh.setEnabled(false);
-                  } else if (message.contains("enable_refresh")) {
-                    ((SwipeRefreshLayout) mWebView.getParent()).setEnabled(true);
-                  } else {
-                    WritableMap data = mRNCWebViewClient.createWebViewEvent(webView, sourceUrl);
-                    data.putString("data", message);
-
-                    if (mMessagingJSModule != null) {
-                      dispatchDirectMessage(data);
-                    } else {
-                      dispatchEvent(webView, new TopMessageEvent(RNCWebViewWrapper.getReactTagFromWebView(webView), data));
-                    }
-                  }
-                }
-            });
+        onMessage(message, sourceUrl, true, System.nanoTime(), false);
+    }
+
+    /**
+     * @param isMainFrame whether the message was posted by the main frame
+     * @param receivedAtNanos {@link System#nanoTime()} when the bridge received the message
+     * @param viaFallbackBridge whether it came through the JavascriptInterface fallback
+     */
+    protected void onMessage(String message, String sourceUrl, boolean isMainFrame, long receivedAtNanos, boolean viaFallbackBridge) {
+        if (RNCWebViewMessageConsumerRegistry.consume(webViewId, message, sourceUrl, isMainFrame)) {
+            return;
+        }
+        // WebMessageListener callbacks already run on the UI thread, only the fallback bridge
+        // needs to hop before the view is touched.
+        if (!UiThreadUtil.isOnUiThread()) {
+            post(() -> dispatchOnMessage(message, sourceUrl, isMainFrame, receivedAtNanos, viaFallbackBridge));
+            return;
+        }
+        dispatchOnMessage(message, sourceUrl, isMainFrame, receivedAtNanos, viaFallbackBridge);
+    }
+
+    private void dispatchOnMessage(String message, String sourceUrl, boolean isMainFrame, long receivedAtNanos, boolean viaFallbackBridge) {
+        if (mRNCWebViewClient != null || messageReplayBuffer != null) {
+            if (parseJsonMessages) {
+                // Every message goes through the executor, not just JSON ones, to keep them in order.
+                JSON_PARSER_EXECUTOR.execute(() -> {
+                    Object json = RNCWebViewJsonParser.parse(message);
+                    post(() -> handleMessage(new RNCWebViewMessage(message, sourceUrl, isMainFrame, receivedAtNanos, json), viaFallbackBridge));
+                });
+                return;
+            }
+
+            handleMessage(new RNCWebViewMessage(message, sourceUrl, isMainFrame, receivedAtNanos, null), viaFallbackBridge);
         } else {
-            WritableMap eventData = Arguments.createMap();
+            WritableMap eventData = createMessageEvent(sourceUrl, isMainFrame);
             eventData.putString("data", message);
+            dispatchMessageEvent(eventData);
+        }
+    }
 
-            if (mMessagingJSModule != null) {
-                dispatchDirectMessage(eventData);
-            } else {
-                dispatchEvent(this, new TopMessageEvent(RNCWebViewWrapper.getReactTagFromWebView(this), eventData));
+    private void handleMessage(RNCWebViewMessage message, boolean viaFallbackBridge) {
+        if (messageReplayBuffer != null) {
+            if (!canDispatchMessages()) {
+                bridgeMetrics.onMessageReceived(message, viaFallbackBridge);
+                messageReplayBuffer.add(message);
+                return;
+            }
+            replayBufferedMessages();
+        }
+        if (mRNCWebViewClient == null) return;
+
+        bridgeMetrics.onMessageReceived(message, viaFallbackBridge);
+        offerMessage(message);
+    }
+
+    /**
+     * Hands a received page message to the queue when one is set, to JS otherwise.
+     */
+    void offerMessage(RNCWebViewMessage message) {
+        if (messageQueue != null) {
+            messageQueue.offer(message);
+        } else {
+            deliverMessage(message);
+        }
+    }
+
+    /**
+     * Handles a signal posted on {@link #CONTROL_INTERFACE}. Must be called on the UI thread.
+     */
+    protected void onControlMessage(@Nullable String message) {
+        if (!(getParent() instanceof SwipeRefreshLayout)) {
+            return;
+        }
+        Boolean refreshEnabled = refreshEnabledFor(message);
+        if (refreshEnabled != null) {
+            ((SwipeRefreshLayout) getParent()).setEnabled(refreshEnabled);
+        }
+    }
+
+    /**
+     * Whether a control signal enables or disables pull-to-refresh, {@code null} when it is not a
+     * pull-to-refresh signal. Signals are matched exactly.
+     */
+    static @Nullable Boolean refreshEnabledFor(@Nullable String message) {
+        if (CONTROL_DISABLE_REFRESH.equals(message)) {
+            return false;
+        }
+        if (CONTROL_ENABLE_REFRESH.equals(message)) {
+            return true;
+        }
+        return null;
+    }
+
+    /**
+     * Called when the page posts an ArrayBuffer. The bytes are handed to React Native's BlobModule
+     * and JS receives a Blob reference in `nativeEvent.blob`, so the payload never crosses the
+     * bridge as a (base64) string.
+     */
+    public void onBinaryMessage(byte[] bytes, String sourceUrl, boolean isMainFrame) {
+        BlobModule blobModule = getReactApplicationContext().getNativeModule(BlobModule.class);
+        if (blobModule == null) {
+            FLog.w(TAG, "Dropping binary message because BlobModule is not available.");
+            return;
+        }
+
+        WritableMap blob = Arguments.createMap();
+        blob.putString("blobId", blobModule.store(bytes));
+        blob.putInt("offset", 0);
+        blob.putInt("size", bytes.length);
+        blob.putString("type", BINARY_MESSAGE_TYPE);
+
+        post(() -> {
+            if (mRNCWebViewClient == null) return;
+            if (messageBatcher != null) {
+                // Keep ordering with string messages that are still waiting for their batch.
+                messageBatcher.flush();
             }
+
+            WritableMap data = createMessageEvent(sourceUrl, isMainFrame);
+            data.putString("data", "");
+            data.putMap("blob", blob);
+            dispatchMessageEvent(data);
+        });
+    }
+
+    /**
+     * Hands a page message to JS, through the batcher when one is set. Messages coming out of
+     * {@link RNCWebViewMessageQueue} carry its id so JS can acknowledge them.
+     *
+     * @return whether the message was dispatched, or handed to the batcher
+     */
+    boolean deliverMessage(RNCWebViewMessage message) {
+        if (mRNCWebViewClient == null) return false;
+
+        if (messageBatcher != null) {
+            messageBatcher.enqueue(message);
+            return true;
+        }
+
+        bridgeMetrics.onMessageDispatched(message);
+        WritableMap data = createMessageEvent(message.sourceUrl, message.isMainFrame);
+        message.writeData(data);
+        if (messageQueue != null) {
+            data.putInt("queueId", messageQueue.id);
+        }
+        dispatchMessageEvent(data);
+        return true;
+    }
+
+    /**
+     * Delivers messages collected by {@link RNCWebViewMessageBatcher} as a single event whose
+     * `messages` array holds one `{data, url, isMainFrame}` entry per message. The event itself
+     * carries the source of the last message.
+     */
+    void dispatchMessageBatch(List<RNCWebViewMessage> batch) {
+        if (mRNCWebViewClient == null) return;
+
+        WritableArray messages = Arguments.createArray();
+        for (RNCWebViewMessage message : batch) {
+            bridgeMetrics.onMessageDispatched(message);
+            WritableMap entry = Arguments.createMap();
+            message.writeData(entry);
+            entry.putString("url", message.sourceUrl);
+            entry.putBoolean("isMainFrame", message.isMainFrame);
+            messages.pushMap(entry);
+        }
+
+        RNCWebViewMessage last = batch.get(batch.size() - 1);
+        WritableMap data = createMessageEvent(last.sourceUrl, last.isMainFrame);
+        data.putArray("messages", messages);
+        if (messageQueue != null) {
+            data.putInt("queueId", messageQueue.id);
+        }
+        dispatchMessageEvent(data);
+    }
+
+    /**
+     * Delivers one piece of a chunked message as is, when chunked messages are streamed instead of
+     * reassembled. JS receives it with a `chunk` entry describing its place in the message.
+     */
+    protected void dispatchMessageChunk(String transferId, int index, boolean last, String data, String sourceUrl, boolean isMainFrame) {
+        if (mRNCWebViewClient == null) return;
+        if (messageBatcher != null) {
+            messageBatcher.flush();
+        }
+
+        WritableMap chunk = Arguments.createMap();
+        chunk.putString("id", transferId);
+        chunk.putInt("index", index);
+        chunk.putBoolean("last", last);
+
+        WritableMap event = createMessageEvent(sourceUrl, isMainFrame);
+        event.putString("data", data);
+        event.putMap("chunk", chunk);
+        dispatchMessageEvent(event);
+    }
+
+    /**
+     * Delivers a `ReactNativeWebView.request()` call to JS. The answer comes back through
+     * {@link RNCWebViewRpc#resolve}.
+     */
+    protected void dispatchRequest(long requestId, String data, String sourceUrl, boolean isMainFrame) {
+        if (messageBatcher != null) {
+            messageBatcher.flush();
+        }
+
+        WritableMap event = createMessageEvent(sourceUrl, isMainFrame);
+        event.putDouble("requestId", requestId);
+        event.putString("data", data);
+        dispatchMessageEvent(event);
+    }
+
+    /**
+     * Base event for page messages. In lean mode it only holds the source origin and the frame
+     * flag, otherwise it also carries the navigation state of the WebView like other events.
+     */
+    protected WritableMap createMessageEvent(@Nullable String sourceUrl, boolean isMainFrame) {
+        WritableMap event;
+        if (leanMessageEvents || mRNCWebViewClient == null) {
+            event = Arguments.createMap();
+            event.putString("url", sourceUrl);
+        } else {
+            event = mRNCWebViewClient.createWebViewEvent(this, sourceUrl);
+        }
+        event.putBoolean("isMainFrame", isMainFrame);
+        return event;
+    }
+
+    protected void dispatchMessageEvent(WritableMap data) {
+        if (BuildConfig.IS_NEW_ARCHITECTURE_ENABLED) {
+            dispatchFabricMessage(data);
+        } else if (mMessagingJSModule != null) {
+            dispatchDirectMessage(data);
+        } else {
+            dispatchEvent(this, new TopMessageEvent(RNCWebViewWrapper.getReactTagFromWebView(this), data));
+        }
+    }
+
+    /**
+     * New architecture path for page messages. The event goes straight to Fabric, which hands it
+     * to the view's event emitter over JSI, instead of through the `RNCWebViewMessagingModule`
+     * JavaScriptModule proxy. The event dispatcher is looked up once per view.
+     */
+    protected void dispatchFabricMessage(WritableMap data) {
+        int reactTag = RNCWebViewWrapper.getReactTagFromWebView(this);
+        if (mMessageEventDispatcher == null) {
+            mMessageEventDispatcher = UIManagerHelper.getEventDispatcherForReactTag(getThemedReactContext(), reactTag);
+            mSurfaceId = UIManagerHelper.getSurfaceId(this);
+        }
+        if (mMessageEventDispatcher != null) {
+            mMessageEventDispatcher.dispatchEvent(new TopMessageEvent(mSurfaceId, reactTag, data));
         }
     }
 
@@ -535,6 +1376,21 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
     }
 
     protected void cleanupCallbacksAndDestroy() {
+        if (messageBatcher != null) {
+            messageBatcher.cancel();
+        }
+        if (messageQueue != null) {
+            messageQueue.release();
+        }
+        if (messageReplayBuffer != null) {
+            messageReplayBuffer.clear();
+        }
+        RNCWebViewRpc.cancelAll(this);
+        messageChunkAssembler.destroy();
+        messageChannels.clear();
+        setMessageGroups(null);
+        RNCWebViewNavigationDecisions.removeAll(navigationDecisionHost);
+        cancelPendingRestore();
         setWebViewClient(null);
         destroy();
     }
@@ -570,16 +1426,10 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
         @JavascriptInterface
         public void postMessage(String message) {
             if (mWebView.getMessagingEnabled()) {
-              if (message.contains("disable_refresh")) {
-                ((SwipeRefreshLayout) mWebView.getParent()).setRefreshing(false);
-                //swipeRefresh.setEnabled(false);
-              } else if (message.contains("enable_refresh")) {
-                ((SwipeRefreshLayout) mWebView.getParent()).setRefreshing(true);
-              } else {
-                // Post to main thread because `mWebView.getUrl()` requires to be executed on main.
-                mWebView.post(() -> mWebView.onMessage(message, mWebView.getUrl()));
-              }
-
+                if (mWebView.isMessageOriginAllowed()) {
+                    // onMessage moves to the UI thread, the URL is tracked so no hop is needed here.
+                    mWebView.onMessage(message, mWebView.currentUrl, true, System.nanoTime(), true);
+                }
             } else {
                 FLog.w(TAG, "ReactNativeWebView.postMessage method was called but messaging is disabled. Pass an onMessage handler to the WebView.");
             }
@@ -587,6 +1437,47 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
     }
 
 
+    protected class RNCWebViewControlBridge {
+        RNCWebView mWebView;
+
+        RNCWebViewControlBridge(RNCWebView c) {
+          mWebView = c;
+        }
+
+        /**
+         * This method is called whenever JavaScript running within the web view calls:
+         * - window[CONTROL_INTERFACE].postMessage
+         */
+        @JavascriptInterface
+        public void postMessage(String message) {
+            if (mWebView.isMessageOriginAllowed()) {
+                mWebView.post(() -> mWebView.onControlMessage(message));
+            }
+        }
+    }
+
+    protected class RNCWebViewChunkBridge {
+        RNCWebView mWebView;
+
+        RNCWebViewChunkBridge(RNCWebView c) {
+          mWebView = c;
+        }
+
+        /**
+         * This method is called whenever JavaScript running within the web view calls:
+         * - window[RNCWebViewChunkAssembler.CHANNEL_NAME].postMessage
+         */
+        @JavascriptInterface
+        public void postMessage(String chunk) {
+            if (mWebView.getMessagingEnabled()) {
+                if (!mWebView.isMessageOriginAllowed()) return;
+                // Frames cannot be told apart here, the URL is the best sender key available.
+                String url = mWebView.currentUrl;
+                mWebView.post(() -> mWebView.messageChunkAssembler.onChunk(url == null ? "" : url, chunk, url, true, true));
+            }
+        }
+    }
+
     protected static class ProgressChangedFilter {
         private boolean waitingForCommandLoadUrl = false;
 
@@ -599,66 +1490,54 @@ public class RNCWebView extends WebView implements LifecycleEventListener {
         }
     }
 
+    /**
+     * Identifies the restore started last by {@link #restoreState(Runnable)}, {@code null} when
+     * none is pending.
+     */
+    private @Nullable Object pendingRestore;
+
     public void setWebViewId(String id) {
       this.webViewId = id;
-      System.out.println("🐣 setId " + webViewId);
     }
 
-    public boolean restoreState() {
+    /**
+     * Restores the state saved for the current id once it has been read off the UI thread, or
+     * calls `fallback` when there is none. Nothing is loaded in the meantime, the WebView must not
+     * have any history when its state is restored.
+     *
+     * @return whether the restore was started, i.e. the WebView has an id
+     */
+    public boolean restoreState(Runnable fallback) {
       if (this.webViewId == null) return false;
-      Bundle bundle = BundlePreferencesUtil.restoreBundleFromPreferences(getContext(), webViewId);
-      if (bundle == null) return false;
-      System.out.println("🐣 restoredState " + webViewId);
-      return this.restoreState(bundle) != null;
+      final Object restore = new Object();
+      pendingRestore = restore;
+      RNCWebViewStateStore.get(getContext()).restore(webViewId, bundle -> {
+        if (pendingRestore != restore) {
+          // Another source was loaded in the meantime.
+          return;
+        }
+        pendingRestore = null;
+        if (bundle == null || this.restoreState(bundle) == null) {
+          fallback.run();
+        }
+      });
+      return true;
+    }
+
+    /**
+     * Drops the result of a restore still being read, e.g. when another source is loaded.
+     */
+    public void cancelPendingRestore() {
+      pendingRestore = null;
     }
 
     public void saveState() {
       if (this.webViewId == null) return;
+      // The WebView has no history yet, saving now would overwrite the state being restored.
+      if (pendingRestore != null) return;
       Bundle bundle = new Bundle();
       if (this.saveState(bundle) != null) {
-        BundlePreferencesUtil.saveBundleToPreferences(bundle, getContext(), webViewId);
-        System.out.println("🐣 savedState " + webViewId);
-      }
-    }
-
-    private static class BundlePreferencesUtil {
-
-      public static void saveBundleToPreferences(Bundle bundle, Context context, String key) {
-        SharedPreferences sharedPreferences = context.getSharedPreferences("MyPrefs", Context.MODE_PRIVATE);
-        Parcel parcel = Parcel.obtain();
-        try {
-          // Serialize the Bundle into a Parcel
-          bundle.writeToParcel(parcel, 0);
-          byte[] bytes = parcel.marshall();
-          String encodedString = Base64.encodeToString(bytes, Base64.DEFAULT);
-
-          // Save the encoded string in SharedPreferences
-          sharedPreferences.edit().putString(key, encodedString).apply();
-        } finally {
-          parcel.recycle();
-        }
-      }
-
-      public static Bundle restoreBundleFromPreferences(Context context, String key) {
-        SharedPreferences sharedPreferences = context.getSharedPreferences("MyPrefs", Context.MODE_PRIVATE);
-        String encodedString = sharedPreferences.getString(key, null);
-
-        if (encodedString == null) {
-          return null;
-        }
-
-        byte[] bytes = Base64.decode(encodedString, Base64.DEFAULT);
-        Parcel parcel = Parcel.obtain();
-        try {
-          // Deserialize the byte array into a Parcel
-          parcel.unmarshall(bytes, 0, bytes.length);
-          parcel.setDataPosition(0);
-
-          // Create and return the Bundle from the Parcel
-          return Bundle.CREATOR.createFromParcel(parcel);
-        } finally {
-          parcel.recycle();
-        }
+        RNCWebViewStateStore.get(getContext()).save(webViewId, bundle);
       }
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.reactnativecommunity.webview;
+
+import android.annotation.SuppressLint;
+
+import androidx.annotation.Nullable;
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebViewFeature;
+
+import com.facebook.common.logging.FLog;
+
+import java.lang.reflect.Method;
+
+/**
+ * ArrayBuffer page messages. {@code WebMessageCompat.getType()} and {@code getArrayBuffer()} only
+ * exist from androidx.webkit 1.8.0, which requires compileSdk 34, while the library builds against
+ * an older webkit. They are therefore looked up at runtime: apps that resolve a newer webkit get
+ * ArrayBuffer messages on WebViews with {@code WEB_MESSAGE_ARRAY_BUFFER} support, the others keep
+ * the string path.
+ */
+class RNCWebViewArrayBuffers {
+    private static final String TAG = "RNCWebViewArrayBuffers";
+    private static final String FEATURE = "WEB_MESSAGE_ARRAY_BUFFER";
+    // WebMessageCompat.TYPE_STRING and TYPE_ARRAY_BUFFER
+    private static final int TYPE_STRING = 0;
+    private static final int TYPE_ARRAY_BUFFER = 1;
+
+    private static @Nullable Method sGetType;
+    private static @Nullable Method sGetArrayBuffer;
+    private static @Nullable Boolean sSupported;
+
+    static synchronized boolean isSupported() {
+        if (sSupported == null) {
+            sSupported = lookUp();
+        }
+        return sSupported;
+    }
+
+    /**
+     * Every WebMessageListener must read its payload through this: with webkit 1.8.0 or newer,
+     * {@code getData()} throws for ArrayBuffer messages, which any allowed frame can post.
+     *
+     * @return the data of a string message, {@code null} for an ArrayBuffer message
+     */
+    static @Nullable String getString(WebMessageCompat message) {
+        isSupported();
+        if (sGetType != null) {
+            try {
+                if ((int) sGetType.invoke(message) != TYPE_STRING) {
+                    return null;
+                }
+            } catch (ReflectiveOperationException e) {
+                FLog.e(TAG, "Failed to read the type of a page message", e);
+                return null;
+            }
+        }
+        return message.getData();
+    }
+
+    /**
+     * @return the bytes of an ArrayBuffer message, {@code null} for any other message
+     */
+    static @Nullable byte[] getArrayBuffer(WebMessageCompat message) {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            if ((int) sGetType.invoke(message) != TYPE_ARRAY_BUFFER) {
+                return null;
+            }
+            return (byte[]) sGetArrayBuffer.invoke(message);
+        } catch (ReflectiveOperationException e) {
+            FLog.e(TAG, "Failed to read an ArrayBuffer message", e);
+            return null;
+        }
+    }
+
+    @SuppressLint("WrongConstant")
+    private static boolean lookUp() {
+        try {
+            // The type is checked by getString even where ArrayBuffers are not supported.
+            sGetType = WebMessageCompat.class.getMethod("getType");
+            sGetArrayBuffer = WebMessageCompat.class.getMethod("getArrayBuffer");
+            return WebViewFeature.isFeatureSupported(FEATURE);
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (RuntimeException e) {
+            // Older webkit versions throw for features they do not know.
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.reactnativecommunity.webview;
+
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Message counters of a single WebView: what the page posts, how long messages take from the
+ * bridge callback to the React Native dispatch, and what the app posts back to the page.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewBridgeMetrics {
+    private long mSinceMillis = SystemClock.elapsedRealtime();
+    private long mMessagesReceived = 0;
+    private long mFallbackMessagesReceived = 0;
+    private long mBytesReceived = 0;
+    private long mLargestMessageBytes = 0;
+    private long mMessagesDispatched = 0;
+    private long mMessagesPosted = 0;
+    private long mBytesPosted = 0;
+    private final RNCWebViewLatencyHistogram mDispatchLatency = new RNCWebViewLatencyHistogram();
+
+    void onMessageReceived(RNCWebViewMessage message, boolean viaFallbackBridge) {
+        int bytes = message.byteSize();
+        mMessagesReceived++;
+        if (viaFallbackBridge) {
+            mFallbackMessagesReceived++;
+        }
+        mBytesReceived += bytes;
+        mLargestMessageBytes = Math.max(mLargestMessageBytes, bytes);
+    }
+
+    void onMessageDispatched(RNCWebViewMessage message) {
+        mMessagesDispatched++;
+        mDispatchLatency.record(System.nanoTime() - message.receivedAtNanos);
+    }
+
+    void onMessagePosted(String data) {
+        mMessagesPosted++;
+        mBytesPosted += data.length() * 2L;
+    }
+
+    void reset() {
+        mSinceMillis = SystemClock.elapsedRealtime();
+        mMessagesReceived = 0;
+        mFallbackMessagesReceived = 0;
+        mBytesReceived = 0;
+        mLargestMessageBytes = 0;
+        mMessagesDispatched = 0;
+        mMessagesPosted = 0;
+        mBytesPosted = 0;
+        mDispatchLatency.reset();
+    }
+
+    /**
+     * Byte counts are approximate (UTF-16 size of the strings).
+     */
+    WritableMap toWritableMap() {
+        double seconds = Math.max(1, SystemClock.elapsedRealtime() - mSinceMillis) / 1000.0;
+
+        WritableMap map = Arguments.createMap();
+        map.putDouble("periodMs", seconds * 1000);
+        map.putDouble("messagesReceived", mMessagesReceived);
+        map.putDouble("fallbackMessagesReceived", mFallbackMessagesReceived);
+        map.putDouble("bytesReceived", mBytesReceived);
+        map.putDouble("largestMessageBytes", mLargestMessageBytes);
+        map.putDouble("messagesPerSecond", mMessagesReceived / seconds);
+        map.putDouble("bytesPerSecond", mBytesReceived / seconds);
+        map.putDouble("messagesDispatched", mMessagesDispatched);
+        map.putMap("dispatchLatency", mDispatchLatency.toWritableMap());
+        map.putDouble("messagesPosted", mMessagesPosted);
+        map.putDouble("bytesPosted", mBytesPosted);
+        return map;
+    }
+}
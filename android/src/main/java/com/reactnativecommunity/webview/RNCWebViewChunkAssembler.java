@@ -0,0 +1,223 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.common.logging.FLog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reassembles large messages that the page sent in pieces with
+ * {@code window.ReactNativeWebView.postLargeMessage(data, chunkSize)}.
+ * <p>
+ * Each piece is posted to the {@link #CHANNEL_NAME} object as {@code <id>:<index>:<flag>:<payload>}
+ * where {@code flag} is {@code m} when more pieces follow and {@code e} for the last one. Pieces are
+ * appended to a pooled {@link StringBuilder} so only one String of the full size is ever created,
+ * and a message is dropped once it grows past the configured maximum. In {@link Mode#STREAM} pieces
+ * are not reassembled but handed to JS one by one.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewChunkAssembler {
+    private static final String TAG = "RNCWebViewChunkAssembler";
+
+    static final String CHANNEL_NAME = "ReactNativeWebViewChunk";
+    static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+    static final int DEFAULT_MAX_MESSAGE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Builders are kept for reuse up to twice the configured maximum message size, the most a
+     * builder grows to while holding such a message, so the multi-MB messages this is meant for do
+     * not have to grow a new builder every time. Only one is kept, which bounds what an idle
+     * WebView holds on to.
+     */
+    private static final int MAX_POOLED_BUILDERS = 1;
+
+    static final String PAGE_SCRIPT = "(function () {\n" +
+      "  var bridge = window." + RNCWebView.JAVASCRIPT_INTERFACE + ";\n" +
+      "  var channel = window." + CHANNEL_NAME + ";\n" +
+      "  if (!bridge || !channel || bridge.postLargeMessage) return;\n" +
+      "  var nextId = 1;\n" +
+      "  bridge.postLargeMessage = function (data, chunkSize) {\n" +
+      "    data = String(data);\n" +
+      "    var size = Math.floor(chunkSize) > 1 ? Math.floor(chunkSize) : " + DEFAULT_CHUNK_SIZE + ";\n" +
+      "    var id = nextId++;\n" +
+      "    var index = 0;\n" +
+      "    var start = 0;\n" +
+      "    do {\n" +
+      "      var end = Math.min(start + size, data.length);\n" +
+      "      var last = data.charCodeAt(end - 1);\n" +
+      "      if (end < data.length && last >= 0xd800 && last <= 0xdbff) end--;\n" +
+      "      var flag = end < data.length ? 'm' : 'e';\n" +
+      "      channel.postMessage(id + ':' + index + ':' + flag + ':' + data.substring(start, end));\n" +
+      "      index++;\n" +
+      "      start = end;\n" +
+      "    } while (start < data.length);\n" +
+      "  };\n" +
+      "})();";
+
+    enum Mode {
+        ASSEMBLE,
+        STREAM
+    }
+
+    private static class Transfer {
+        final Object sender;
+        final String id;
+        final StringBuilder buffer;
+        int nextIndex = 0;
+
+        Transfer(Object sender, String id, StringBuilder buffer) {
+            this.sender = sender;
+            this.id = id;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Receives reassembled messages and streamed pieces. The WebView outside of unit tests.
+     */
+    interface Target {
+        void onMessage(String message, String sourceUrl, boolean isMainFrame, long receivedAtNanos, boolean viaFallbackBridge);
+
+        void dispatchMessageChunk(String transferId, int index, boolean last, String data, String sourceUrl, boolean isMainFrame);
+    }
+
+    private final Target mTarget;
+    private final List<Transfer> mTransfers = new ArrayList<>();
+    private final ArrayDeque<StringBuilder> mPool = new ArrayDeque<>();
+    private Mode mMode = Mode.ASSEMBLE;
+    private int mMaxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+
+    RNCWebViewChunkAssembler(RNCWebView webView) {
+        this(new Target() {
+            @Override
+            public void onMessage(String message, String sourceUrl, boolean isMainFrame, long receivedAtNanos, boolean viaFallbackBridge) {
+                webView.onMessage(message, sourceUrl, isMainFrame, receivedAtNanos, viaFallbackBridge);
+            }
+
+            @Override
+            public void dispatchMessageChunk(String transferId, int index, boolean last, String data, String sourceUrl, boolean isMainFrame) {
+                webView.dispatchMessageChunk(transferId, index, last, data, sourceUrl, isMainFrame);
+            }
+        });
+    }
+
+    RNCWebViewChunkAssembler(Target target) {
+        mTarget = target;
+    }
+
+    void configure(Mode mode, int maxMessageSize) {
+        if (mode != mMode) {
+            clear();
+        }
+        mMode = mode;
+        mMaxMessageSize = maxMessageSize > 0 ? maxMessageSize : DEFAULT_MAX_MESSAGE_SIZE;
+        if (mMode == Mode.STREAM) {
+            mPool.clear();
+        }
+    }
+
+    /**
+     * @param sender identifies the frame that posted the piece, so transfers from different frames
+     *               that happen to use the same id are kept apart
+     * @param viaFallbackBridge whether the piece came through the JavascriptInterface fallback,
+     *                          recorded in the bridge metrics of the reassembled message
+     */
+    void onChunk(Object sender, @Nullable String frame, String sourceUrl, boolean isMainFrame, boolean viaFallbackBridge) {
+        int idEnd = frame == null ? -1 : frame.indexOf(':');
+        int indexEnd = idEnd < 0 ? -1 : frame.indexOf(':', idEnd + 1);
+        int flagEnd = indexEnd < 0 ? -1 : indexEnd + 2;
+        if (flagEnd < 0 || flagEnd >= frame.length() || frame.charAt(flagEnd) != ':') {
+            FLog.w(TAG, "Ignoring malformed message chunk.");
+            return;
+        }
+
+        String id = frame.substring(0, idEnd);
+        int index;
+        try {
+            index = Integer.parseInt(frame.substring(idEnd + 1, indexEnd));
+        } catch (NumberFormatException e) {
+            FLog.w(TAG, "Ignoring message chunk with invalid index.");
+            return;
+        }
+        boolean last = frame.charAt(indexEnd + 1) == 'e';
+        int payloadStart = flagEnd + 1;
+
+        if (mMode == Mode.STREAM) {
+            mTarget.dispatchMessageChunk(id, index, last, frame.substring(payloadStart), sourceUrl, isMainFrame);
+            return;
+        }
+
+        Transfer transfer = findTransfer(sender, id);
+        if (index == 0) {
+            if (transfer != null) {
+                release(transfer);
+            }
+            transfer = new Transfer(sender, id, obtainBuffer());
+            mTransfers.add(transfer);
+        } else if (transfer == null || transfer.nextIndex != index) {
+            FLog.w(TAG, "Dropping chunked message " + id + ", chunk " + index + " arrived out of order.");
+            if (transfer != null) {
+                release(transfer);
+            }
+            return;
+        }
+
+        if (transfer.buffer.length() + frame.length() - payloadStart > mMaxMessageSize) {
+            FLog.w(TAG, "Dropping chunked message " + id + ", it is larger than " + mMaxMessageSize + " chars.");
+            release(transfer);
+            return;
+        }
+        transfer.buffer.append(frame, payloadStart, frame.length());
+        transfer.nextIndex++;
+
+        if (last) {
+            String message = transfer.buffer.toString();
+            release(transfer);
+            mTarget.onMessage(message, sourceUrl, isMainFrame, System.nanoTime(), viaFallbackBridge);
+        }
+    }
+
+    /**
+     * Drops partially received messages, e.g. when a new document starts loading.
+     */
+    void clear() {
+        for (int i = mTransfers.size() - 1; i >= 0; i--) {
+            release(mTransfers.get(i));
+        }
+    }
+
+    /**
+     * Drops partially received messages and the pooled builders, e.g. when the view is destroyed.
+     */
+    void destroy() {
+        clear();
+        mPool.clear();
+    }
+
+    private @Nullable Transfer findTransfer(Object sender, String id) {
+        for (Transfer transfer : mTransfers) {
+            if (transfer.sender.equals(sender) && transfer.id.equals(id)) {
+                return transfer;
+            }
+        }
+        return null;
+    }
+
+    private StringBuilder obtainBuffer() {
+        StringBuilder buffer = mPool.poll();
+        return buffer != null ? buffer : new StringBuilder();
+    }
+
+    private void release(Transfer transfer) {
+        mTransfers.remove(transfer);
+        StringBuilder buffer = transfer.buffer;
+        if (buffer.capacity() <= 2L * mMaxMessageSize && mPool.size() < MAX_POOLED_BUILDERS) {
+            buffer.setLength(0);
+            mPool.add(buffer);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import android.annotation.TargetApi;
 import android.graphics.Bitmap;
 import android.net.http.SslError;
 import android.os.Build;
-import android.os.SystemClock;
 import android.util.Log;
 import android.webkit.HttpAuthHandler;
 import android.webkit.RenderProcessGoneDetail;
@@ -16,7 +15,6 @@ import android.webkit.WebViewClient;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
-import androidx.core.util.Pair;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.facebook.common.logging.FLog;
@@ -31,15 +29,16 @@ import com.reactnativecommunity.webview.events.TopLoadingErrorEvent;
 import com.reactnativecommunity.webview.events.TopLoadingFinishEvent;
 import com.reactnativecommunity.webview.events.TopLoadingStartEvent;
 import com.reactnativecommunity.webview.events.TopRenderProcessGoneEvent;
+import com.reactnativecommunity.webview.events.TopShouldStartLoadTimeoutEvent;
 import com.reactnativecommunity.webview.events.TopShouldStartLoadWithRequestEvent;
 import android.webkit.CookieManager;
 import android.webkit.CookieSyncManager;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Locale;
+import java.util.Map;
 
 public class RNCWebViewClient extends WebViewClient {
     private static String TAG = "RNCWebViewClient";
-    protected static final int SHOULD_OVERRIDE_URL_LOADING_TIMEOUT = 250;
 
     protected boolean mLastLoadFailed = false;
     protected RNCWebView.ProgressChangedFilter progressChangedFilter = null;
@@ -66,6 +65,8 @@ public class RNCWebViewClient extends WebViewClient {
         if (!mLastLoadFailed) {
             RNCWebView reactWebView = (RNCWebView) webView;
 
+            reactWebView.setCurrentUrl(url);
+            reactWebView.messageChannels.onPageFinished();
             reactWebView.callInjectedJavaScript();
             reactWebView.saveState();
 
@@ -76,6 +77,7 @@ public class RNCWebViewClient extends WebViewClient {
     @Override
     public void doUpdateVisitedHistory (WebView webView, String url, boolean isReload) {
       super.doUpdateVisitedHistory(webView, url, isReload);
+      ((RNCWebView) webView).setCurrentUrl(url);
 
       ((RNCWebView) webView).dispatchEvent(
         webView,
@@ -90,46 +92,94 @@ public class RNCWebViewClient extends WebViewClient {
       mLastLoadFailed = false;
 
       RNCWebView reactWebView = (RNCWebView) webView;
+      reactWebView.setCurrentUrl(url);
+      reactWebView.clearMainFrameReplyProxy();
+      reactWebView.resetMessagesInFlight();
+      reactWebView.prepareChunkedMessaging();
+      reactWebView.messageChannels.onPageStarted();
+      reactWebView.valueStore.onPageStarted(url);
       reactWebView.callInjectedJavaScriptBeforeContentLoaded();
     }
 
     @Override
     public boolean shouldOverrideUrlLoading(WebView view, String url) {
+        return shouldOverrideUrlLoading(view, url, null, true);
+    }
+
+    private boolean shouldOverrideUrlLoading(WebView view, String url, @Nullable Map<String, String> headers, boolean isMainFrame) {
         final RNCWebView rncWebView = (RNCWebView) view;
+
+        if (rncWebView.navigationRules != null) {
+            // Allow rules skip originWhitelist, which is only checked in JS.
+            Boolean override = RNCWebViewNavigationRules.shouldOverride(rncWebView.navigationRules.decide(url));
+            if (override != null) {
+                rncWebView.navigationMetrics.onDecidedByRules();
+                return override;
+            }
+        }
+
+        Boolean cachedShouldStart = rncWebView.navigationDecisionCache.get(url);
+        if (cachedShouldStart != null) {
+            rncWebView.navigationMetrics.onDecidedFromCache();
+            return !cachedShouldStart;
+        }
+
+        if (rncWebView.shouldStartLoadAsync && isMainFrame) {
+            return deferShouldStartLoad(rncWebView, url, headers);
+        }
+
         final boolean isJsDebugging = rncWebView.getReactApplicationContext().getJavaScriptContextHolder().get() == 0;
 
         if (!isJsDebugging && rncWebView.mMessagingJSModule != null) {
-            final Pair<Double, AtomicReference<RNCWebViewModuleImpl.ShouldOverrideUrlLoadingLock.ShouldOverrideCallbackState>> lock = RNCWebViewModuleImpl.shouldOverrideUrlLoadingLock.getNewLock();
-            final double lockIdentifier = lock.first;
-            final AtomicReference<RNCWebViewModuleImpl.ShouldOverrideUrlLoadingLock.ShouldOverrideCallbackState> lockObject = lock.second;
+            final RNCWebViewNavigationDecisions.Pending pending = RNCWebViewNavigationDecisions.create(rncWebView.navigationDecisionHost, url, headers);
+            rncWebView.navigationMetrics.onAsked(false);
 
             final WritableMap event = createWebViewEvent(view, url);
-            event.putDouble("lockIdentifier", lockIdentifier);
+            event.putDouble("lockIdentifier", pending.id);
             rncWebView.dispatchDirectShouldStartLoadWithRequest(event);
 
+            final long waitStartNanos = System.nanoTime();
+            final boolean decided;
             try {
-                assert lockObject != null;
-                synchronized (lockObject) {
-                    final long startTime = SystemClock.elapsedRealtime();
-                    while (lockObject.get() == RNCWebViewModuleImpl.ShouldOverrideUrlLoadingLock.ShouldOverrideCallbackState.UNDECIDED) {
-                        if (SystemClock.elapsedRealtime() - startTime > SHOULD_OVERRIDE_URL_LOADING_TIMEOUT) {
-                            FLog.w(TAG, "Did not receive response to shouldOverrideUrlLoading in time, defaulting to allow loading.");
-                            RNCWebViewModuleImpl.shouldOverrideUrlLoadingLock.removeLock(lockIdentifier);
-                            return false;
-                        }
-                        lockObject.wait(SHOULD_OVERRIDE_URL_LOADING_TIMEOUT);
-                    }
-                }
+                decided = pending.await(rncWebView.shouldStartLoadTimeoutMs);
             } catch (InterruptedException e) {
+                rncWebView.navigationMetrics.onWaited(System.nanoTime() - waitStartNanos, false);
                 FLog.e(TAG, "shouldOverrideUrlLoading was interrupted while waiting for result.", e);
-                RNCWebViewModuleImpl.shouldOverrideUrlLoadingLock.removeLock(lockIdentifier);
+                RNCWebViewNavigationDecisions.remove(pending);
                 return false;
             }
+            rncWebView.navigationMetrics.onWaited(System.nanoTime() - waitStartNanos, !decided);
+
+            if (!decided) {
+                final boolean override;
+                switch (rncWebView.shouldStartLoadTimeoutPolicy) {
+                    case DENY:
+                        FLog.w(TAG, "Did not receive response to shouldOverrideUrlLoading in time, denying loading.");
+                        RNCWebViewNavigationDecisions.remove(pending);
+                        override = true;
+                        break;
+                    case DEFER:
+                        FLog.w(TAG, "Did not receive response to shouldOverrideUrlLoading in time, deferring loading until it does.");
+                        progressChangedFilter.setWaitingForCommandLoadUrl(true);
+                        pending.defer();
+                        override = true;
+                        break;
+                    default:
+                        FLog.w(TAG, "Did not receive response to shouldOverrideUrlLoading in time, defaulting to allow loading.");
+                        RNCWebViewNavigationDecisions.remove(pending);
+                        override = false;
+                        break;
+                }
+                // Reported once the policy was applied, as documented for the event, and only when
+                // JS listens, to keep the bridge quiet on the navigation path otherwise.
+                if (rncWebView.hasShouldStartLoadTimeoutListener) {
+                    dispatchShouldStartLoadTimeout(rncWebView, url);
+                }
+                return override;
+            }
 
-            final boolean shouldOverride = lockObject.get() == RNCWebViewModuleImpl.ShouldOverrideUrlLoadingLock.ShouldOverrideCallbackState.SHOULD_OVERRIDE;
-            RNCWebViewModuleImpl.shouldOverrideUrlLoadingLock.removeLock(lockIdentifier);
-
-            return shouldOverride;
+            RNCWebViewNavigationDecisions.remove(pending);
+            return !pending.shouldStart();
         } else {
             FLog.w(TAG, "Couldn't use blocking synchronous call for onShouldStartLoadWithRequest due to debugging or missing Catalyst instance, falling back to old event-and-load.");
             progressChangedFilter.setWaitingForCommandLoadUrl(true);
@@ -146,7 +196,40 @@ public class RNCWebViewClient extends WebViewClient {
     @Override
     public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
         final String url = request.getUrl().toString();
-        return this.shouldOverrideUrlLoading(view, url);
+        return this.shouldOverrideUrlLoading(view, url, request.getRequestHeaders(), request.isForMainFrame());
+    }
+
+    /**
+     * Cancels the navigation right away and asks JS about it without blocking the UI thread. The
+     * URL is loaded again, with its original request headers, once JS allows it.
+     */
+    private boolean deferShouldStartLoad(RNCWebView webView, String url, @Nullable Map<String, String> headers) {
+        final RNCWebViewNavigationDecisions.Pending pending = RNCWebViewNavigationDecisions.create(webView.navigationDecisionHost, url, headers);
+        webView.navigationMetrics.onAsked(true);
+        progressChangedFilter.setWaitingForCommandLoadUrl(true);
+        pending.defer();
+
+        final WritableMap event = createWebViewEvent(webView, url);
+        event.putDouble("lockIdentifier", pending.id);
+        if (webView.mMessagingJSModule != null) {
+            webView.dispatchDirectShouldStartLoadWithRequest(event);
+        } else {
+            int reactTag = RNCWebViewWrapper.getReactTagFromWebView(webView);
+            UIManagerHelper.getEventDispatcherForReactTag((ReactContext) webView.getContext(), reactTag).dispatchEvent(new TopShouldStartLoadWithRequestEvent(
+                    reactTag,
+                    event));
+        }
+        return true;
+    }
+
+    private void dispatchShouldStartLoadTimeout(RNCWebView webView, String url) {
+        final WritableMap event = createWebViewEvent(webView, url);
+        event.putDouble("timeoutMs", webView.shouldStartLoadTimeoutMs);
+        event.putString("policy", webView.shouldStartLoadTimeoutPolicy.name().toLowerCase(Locale.ROOT));
+        event.putDouble("timeouts", webView.navigationMetrics.getTimeouts());
+
+        int reactTag = RNCWebViewWrapper.getReactTagFromWebView(webView);
+        UIManagerHelper.getEventDispatcherForReactTag((ReactContext) webView.getContext(), reactTag).dispatchEvent(new TopShouldStartLoadTimeoutEvent(reactTag, event));
     }
 
     @Override
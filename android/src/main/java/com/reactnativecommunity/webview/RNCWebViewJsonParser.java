@@ -0,0 +1,287 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.util.Iterator;
+
+/**
+ * Turns JSON page messages into {@link WritableMap}s and {@link WritableArray}s so that JS does not
+ * have to `JSON.parse` them on its own thread. Only objects and arrays are parsed, anything else
+ * stays a string.
+ * <p>
+ * {@link JSONTokener} is lenient, it accepts e.g. unquoted keys, single quotes and comments.
+ * Messages are therefore checked against the strict JSON grammar first, so that exactly the
+ * messages `JSON.parse` accepts are parsed.
+ * <p>
+ * Safe to call from any thread.
+ */
+class RNCWebViewJsonParser {
+    /**
+     * Deeper documents are delivered as strings rather than risking a stack overflow while parsing.
+     */
+    static final int MAX_DEPTH = 512;
+
+    /**
+     * @return a {@link WritableMap} or {@link WritableArray}, or {@code null} when the message is
+     * not a JSON object or array
+     */
+    static @Nullable Object parse(String message) {
+        if (!isStrictJson(message)) {
+            return null;
+        }
+        try {
+            Object value = new JSONTokener(message).nextValue();
+            if (value instanceof JSONObject) {
+                return toWritableMap((JSONObject) value);
+            }
+            if (value instanceof JSONArray) {
+                return toWritableArray((JSONArray) value);
+            }
+        } catch (JSONException e) {
+            // Not JSON after all, the raw string is delivered.
+        }
+        return null;
+    }
+
+    /**
+     * Whether {@code message} is a JSON object or array that `JSON.parse` accepts, nested at most
+     * {@link #MAX_DEPTH} levels deep.
+     */
+    static boolean isStrictJson(String message) {
+        return new Validator(message).validateDocument();
+    }
+
+    private static class Validator {
+        private final String mInput;
+        private int mPos;
+
+        Validator(String input) {
+            mInput = input;
+        }
+
+        boolean validateDocument() {
+            skipWhitespace();
+            if (mPos >= mInput.length() || (peek() != '{' && peek() != '[')) {
+                return false;
+            }
+            if (!value(0)) {
+                return false;
+            }
+            skipWhitespace();
+            return mPos == mInput.length();
+        }
+
+        private boolean value(int depth) {
+            if (mPos >= mInput.length()) {
+                return false;
+            }
+            char c = peek();
+            switch (c) {
+                case '{':
+                    return depth < MAX_DEPTH && object(depth + 1);
+                case '[':
+                    return depth < MAX_DEPTH && array(depth + 1);
+                case '"':
+                    return string();
+                case 't':
+                    return literal("true");
+                case 'f':
+                    return literal("false");
+                case 'n':
+                    return literal("null");
+                default:
+                    return c == '-' || (c >= '0' && c <= '9') ? number() : false;
+            }
+        }
+
+        private boolean object(int depth) {
+            mPos++;
+            skipWhitespace();
+            if (consume('}')) {
+                return true;
+            }
+            while (true) {
+                skipWhitespace();
+                if (mPos >= mInput.length() || peek() != '"' || !string()) {
+                    return false;
+                }
+                skipWhitespace();
+                if (!consume(':')) {
+                    return false;
+                }
+                skipWhitespace();
+                if (!value(depth)) {
+                    return false;
+                }
+                skipWhitespace();
+                if (consume('}')) {
+                    return true;
+                }
+                if (!consume(',')) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean array(int depth) {
+            mPos++;
+            skipWhitespace();
+            if (consume(']')) {
+                return true;
+            }
+            while (true) {
+                skipWhitespace();
+                if (!value(depth)) {
+                    return false;
+                }
+                skipWhitespace();
+                if (consume(']')) {
+                    return true;
+                }
+                if (!consume(',')) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean string() {
+            mPos++;
+            while (mPos < mInput.length()) {
+                char c = mInput.charAt(mPos++);
+                if (c == '"') {
+                    return true;
+                }
+                if (c < 0x20) {
+                    return false;
+                }
+                if (c == '\\') {
+                    if (mPos >= mInput.length()) {
+                        return false;
+                    }
+                    char escaped = mInput.charAt(mPos++);
+                    if (escaped == 'u') {
+                        for (int i = 0; i < 4; i++) {
+                            if (mPos >= mInput.length() || "0123456789abcdefABCDEF".indexOf(mInput.charAt(mPos++)) < 0) {
+                                return false;
+                            }
+                        }
+                    } else if ("\"\\/bfnrt".indexOf(escaped) < 0) {
+                        return false;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean number() {
+            consume('-');
+            // No leading zeros.
+            if (!consume('0') && digits() == 0) {
+                return false;
+            }
+            if (consume('.') && digits() == 0) {
+                return false;
+            }
+            if (mPos < mInput.length() && (peek() == 'e' || peek() == 'E')) {
+                mPos++;
+                if (!consume('+')) {
+                    consume('-');
+                }
+                return digits() > 0;
+            }
+            return true;
+        }
+
+        private int digits() {
+            int start = mPos;
+            while (mPos < mInput.length() && peek() >= '0' && peek() <= '9') {
+                mPos++;
+            }
+            return mPos - start;
+        }
+
+        private boolean literal(String literal) {
+            if (!mInput.startsWith(literal, mPos)) {
+                return false;
+            }
+            mPos += literal.length();
+            return true;
+        }
+
+        private boolean consume(char c) {
+            if (mPos < mInput.length() && peek() == c) {
+                mPos++;
+                return true;
+            }
+            return false;
+        }
+
+        private char peek() {
+            return mInput.charAt(mPos);
+        }
+
+        private void skipWhitespace() {
+            // Only the whitespace JSON allows, JSONTokener would skip more.
+            while (mPos < mInput.length()) {
+                char c = peek();
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    return;
+                }
+                mPos++;
+            }
+        }
+    }
+
+    private static WritableMap toWritableMap(JSONObject object) throws JSONException {
+        WritableMap map = Arguments.createMap();
+        Iterator<String> keys = object.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = object.get(key);
+            if (value == JSONObject.NULL) {
+                map.putNull(key);
+            } else if (value instanceof Boolean) {
+                map.putBoolean(key, (Boolean) value);
+            } else if (value instanceof Number) {
+                map.putDouble(key, ((Number) value).doubleValue());
+            } else if (value instanceof JSONObject) {
+                map.putMap(key, toWritableMap((JSONObject) value));
+            } else if (value instanceof JSONArray) {
+                map.putArray(key, toWritableArray((JSONArray) value));
+            } else {
+                map.putString(key, value.toString());
+            }
+        }
+        return map;
+    }
+
+    private static WritableArray toWritableArray(JSONArray array) throws JSONException {
+        WritableArray result = Arguments.createArray();
+        for (int i = 0; i < array.length(); i++) {
+            Object value = array.get(i);
+            if (value == JSONObject.NULL) {
+                result.pushNull();
+            } else if (value instanceof Boolean) {
+                result.pushBoolean((Boolean) value);
+            } else if (value instanceof Number) {
+                result.pushDouble(((Number) value).doubleValue());
+            } else if (value instanceof JSONObject) {
+                result.pushMap(toWritableMap((JSONObject) value));
+            } else if (value instanceof JSONArray) {
+                result.pushArray(toWritableArray((JSONArray) value));
+            } else {
+                result.pushString(value.toString());
+            }
+        }
+        return result;
+    }
+}
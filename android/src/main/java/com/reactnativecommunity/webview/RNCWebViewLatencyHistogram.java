@@ -0,0 +1,96 @@
+package com.reactnativecommunity.webview;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Fixed-size latency histogram with power-of-two buckets, from 250µs up to about 4s. Recording is
+ * allocation free, percentiles are estimated from the upper bound of the bucket they fall in.
+ * <p>
+ * Not thread safe, callers record and read on the same thread.
+ */
+class RNCWebViewLatencyHistogram {
+    private static final long FIRST_BUCKET_MICROS = 250;
+    private static final int BUCKET_COUNT = 15;
+
+    private final long[] mBuckets = new long[BUCKET_COUNT];
+    private long mCount = 0;
+    private long mSumMicros = 0;
+    private long mMaxMicros = 0;
+
+    void record(long durationNanos) {
+        long micros = Math.max(0, durationNanos / 1000);
+        mCount++;
+        mSumMicros += micros;
+        mMaxMicros = Math.max(mMaxMicros, micros);
+        mBuckets[bucketOf(micros)]++;
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets[i] = 0;
+        }
+        mCount = 0;
+        mSumMicros = 0;
+        mMaxMicros = 0;
+    }
+
+    long getCount() {
+        return mCount;
+    }
+
+    /**
+     * Durations are reported in milliseconds. `buckets` lists `{le, count}` pairs, where `le` is
+     * the bucket's upper bound (`-1` for the last, unbounded, bucket).
+     */
+    WritableMap toWritableMap() {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("count", mCount);
+        map.putDouble("meanMs", mCount == 0 ? 0 : mSumMicros / 1000.0 / mCount);
+        map.putDouble("maxMs", mMaxMicros / 1000.0);
+        map.putDouble("p50Ms", percentileMillis(0.5));
+        map.putDouble("p95Ms", percentileMillis(0.95));
+        map.putDouble("p99Ms", percentileMillis(0.99));
+
+        WritableArray buckets = Arguments.createArray();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            WritableMap bucket = Arguments.createMap();
+            bucket.putDouble("le", i == BUCKET_COUNT - 1 ? -1 : upperBoundMicros(i) / 1000.0);
+            bucket.putDouble("count", mBuckets[i]);
+            buckets.pushMap(bucket);
+        }
+        map.putArray("buckets", buckets);
+        return map;
+    }
+
+    private double percentileMillis(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * mCount);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            seen += mBuckets[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundMicros(i), mMaxMicros) / 1000.0;
+            }
+        }
+        return mMaxMicros / 1000.0;
+    }
+
+    private static int bucketOf(long micros) {
+        long bound = FIRST_BUCKET_MICROS;
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            if (micros <= bound) {
+                return i;
+            }
+            bound <<= 1;
+        }
+        return BUCKET_COUNT - 1;
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        return FIRST_BUCKET_MICROS << bucket;
+    }
+}
@@ -41,8 +41,6 @@ import com.facebook.react.common.build.ReactBuildConfig
 import com.facebook.react.modules.core.PermissionAwareActivity
 import com.facebook.react.modules.core.PermissionListener
 import com.facebook.react.uimanager.ThemedReactContext
-import org.json.JSONException
-import org.json.JSONObject
 import java.io.File
 import java.io.UnsupportedEncodingException
 import java.net.MalformedURLException
@@ -422,6 +420,9 @@ class RNCWebViewManagerImpl(private val newArch: Boolean = false) {
     val COMMAND_CLEAR_FORM_DATA = 1000
     val COMMAND_CLEAR_CACHE = 1001
     val COMMAND_CLEAR_HISTORY = 1002
+    val COMMAND_OPEN_MESSAGE_CHANNEL = 1003
+    val COMMAND_POST_CHANNEL_MESSAGE = 1004
+    val COMMAND_CLOSE_MESSAGE_CHANNEL = 1005
 
     fun getCommandsMap(): Map<String, Int>? {
       return MapBuilder.builder<String, Int>()
@@ -436,6 +437,9 @@ class RNCWebViewManagerImpl(private val newArch: Boolean = false) {
         .put("clearFormData", COMMAND_CLEAR_FORM_DATA)
         .put("clearCache", COMMAND_CLEAR_CACHE)
         .put("clearHistory", COMMAND_CLEAR_HISTORY)
+        .put("openMessageChannel", COMMAND_OPEN_MESSAGE_CHANNEL)
+        .put("postChannelMessage", COMMAND_POST_CHANNEL_MESSAGE)
+        .put("closeMessageChannel", COMMAND_CLOSE_MESSAGE_CHANNEL)
         .build()
     }
 
@@ -446,25 +450,7 @@ class RNCWebViewManagerImpl(private val newArch: Boolean = false) {
         "goForward" -> webView.goForward()
         "reload" -> webView.reload()
         "stopLoading" -> webView.stopLoading()
-        "postMessage" -> try {
-          val eventInitDict = JSONObject()
-          eventInitDict.put("data", args.getString(0))
-          webView.evaluateJavascriptWithFallback(
-            "(function () {" +
-              "var event;" +
-              "var data = " + eventInitDict.toString() + ";" +
-              "try {" +
-              "event = new MessageEvent('message', data);" +
-              "} catch (e) {" +
-              "event = document.createEvent('MessageEvent');" +
-              "event.initMessageEvent('message', true, true, data.data, data.origin, data.lastEventId, data.source);" +
-              "}" +
-              "document.dispatchEvent(event);" +
-              "})();"
-          )
-        } catch (e: JSONException) {
-          throw RuntimeException(e)
-        }
+        "postMessage" -> webView.postMessage(args.getString(0))
         "injectJavaScript" -> webView.evaluateJavascriptWithFallback(args.getString(0))
         "loadUrl" -> {
           val url = args?.getString(0) ?: throw RuntimeException("Arguments for loading an url are null!")
@@ -478,6 +464,9 @@ class RNCWebViewManagerImpl(private val newArch: Boolean = false) {
           webView.clearCache(includeDiskFiles)
         }
         "clearHistory" -> webView.clearHistory()
+        "openMessageChannel" -> webView.openMessageChannel(args.getString(0))
+        "postChannelMessage" -> webView.postChannelMessage(args.getString(0), args.getString(1))
+        "closeMessageChannel" -> webView.closeMessageChannel(args.getString(0))
       }
     }
 
@@ -507,10 +496,15 @@ class RNCWebViewManagerImpl(private val newArch: Boolean = false) {
 
     fun setSource(viewWrapper: RNCWebViewWrapper, source: ReadableMap?) {
         mPendingSource = source
+        if (source != null && source.hasKey("id") && source.hasKey("uri")) {
+            // Read the saved state while the other props are set, loadSource restores it.
+            source.getString("id")?.let { RNCWebViewStateStore.get(viewWrapper.context).prefetch(it) }
+        }
     }
 
     private fun loadSource(viewWrapper: RNCWebViewWrapper, source: ReadableMap?) {
         val view = viewWrapper.webView
+        view.cancelPendingRestore()
         if (source != null) {
             view.setWebViewId(if (source.hasKey("id")) source.getString("id") else null);
             if (source.hasKey("html")) {
@@ -526,61 +520,66 @@ class RNCWebViewManagerImpl(private val newArch: Boolean = false) {
                 return
             }
             if (source.hasKey("uri")) {
-                if (view.restoreState()) return
-                val url = source.getString("uri")
-                val previousUrl = view.url
-                if (previousUrl != null && previousUrl == url) return
-                if (source.hasKey("method")) {
-                    val method = source.getString("method")
-                    if (method.equals(HTTP_METHOD_POST, ignoreCase = true)) {
-                        var postData: ByteArray? = null
-                        if (source.hasKey("body")) {
-                            val body = source.getString("body")
-                            postData = try {
-                                body!!.toByteArray(charset("UTF-8"))
-                            } catch (e: UnsupportedEncodingException) {
-                                body!!.toByteArray()
-                            }
-                        }
-                        if (postData == null) {
-                            postData = ByteArray(0)
-                        }
-                        view.postUrl(url!!, postData)
-                        return
+                // The saved state is read in the background, the uri is only loaded without one.
+                if (view.restoreState { loadUri(view, source) }) return
+                loadUri(view, source)
+                return
+            }
+        }
+        view.loadUrl(BLANK_URL)
+    }
+
+    private fun loadUri(view: RNCWebView, source: ReadableMap) {
+        val url = source.getString("uri")
+        val previousUrl = view.url
+        if (previousUrl != null && previousUrl == url) return
+        if (source.hasKey("method")) {
+            val method = source.getString("method")
+            if (method.equals(HTTP_METHOD_POST, ignoreCase = true)) {
+                var postData: ByteArray? = null
+                if (source.hasKey("body")) {
+                    val body = source.getString("body")
+                    postData = try {
+                        body!!.toByteArray(charset("UTF-8"))
+                    } catch (e: UnsupportedEncodingException) {
+                        body!!.toByteArray()
                     }
                 }
-                val headerMap = HashMap<String, String?>()
-                if (source.hasKey("headers")) {
-                    if (newArch) {
-                      val headerArray = source.getArray("headers");
-                      for (header in headerArray!!.toArrayList()) {
-                        val headerCasted = header as HashMap<String, String>
-                        val name = headerCasted.get("name") ?: ""
-                        val value = headerCasted.get("value") ?: ""
-                        if ("user-agent" == name.lowercase(Locale.ENGLISH)) {
-                          view.settings.userAgentString = value
-                        } else {
-                          headerMap[name] = value
-                        }
-                      }
-                    } else {
-                      val headers = source.getMap("headers")
-                      val iter = headers!!.keySetIterator()
-                      while (iter.hasNextKey()) {
-                        val key = iter.nextKey()
-                        if ("user-agent" == key.lowercase(Locale.ENGLISH)) {
-                          view.settings.userAgentString = headers.getString(key)
-                        } else {
-                          headerMap[key] = headers.getString(key)
-                        }
-                      }
-                    }
+                if (postData == null) {
+                    postData = ByteArray(0)
                 }
-                view.loadUrl(url!!, headerMap)
+                view.postUrl(url!!, postData)
                 return
             }
         }
-        view.loadUrl(BLANK_URL)
+        val headerMap = HashMap<String, String?>()
+        if (source.hasKey("headers")) {
+            if (newArch) {
+              val headerArray = source.getArray("headers");
+              for (header in headerArray!!.toArrayList()) {
+                val headerCasted = header as HashMap<String, String>
+                val name = headerCasted.get("name") ?: ""
+                val value = headerCasted.get("value") ?: ""
+                if ("user-agent" == name.lowercase(Locale.ENGLISH)) {
+                  view.settings.userAgentString = value
+                } else {
+                  headerMap[name] = value
+                }
+              }
+            } else {
+              val headers = source.getMap("headers")
+              val iter = headers!!.keySetIterator()
+              while (iter.hasNextKey()) {
+                val key = iter.nextKey()
+                if ("user-agent" == key.lowercase(Locale.ENGLISH)) {
+                  view.settings.userAgentString = headers.getString(key)
+                } else {
+                  headerMap[key] = headers.getString(key)
+                }
+              }
+            }
+        }
+        view.loadUrl(url!!, headerMap)
     }
 
     fun setMessagingModuleName(viewWrapper: RNCWebViewWrapper, value: String?) {
@@ -659,6 +658,127 @@ class RNCWebViewManagerImpl(private val newArch: Boolean = false) {
         view.setMessagingEnabled(value)
     }
 
+    fun setMessageBatching(viewWrapper: RNCWebViewWrapper, config: ReadableMap?) {
+        val view = viewWrapper.webView
+        if (config == null) {
+            view.setMessageBatcher(null)
+            return
+        }
+        val intervalMs = if (config.hasKey("intervalMs")) config.getInt("intervalMs") else 0
+        val maxMessages = if (config.hasKey("maxMessages")) config.getInt("maxMessages") else RNCWebViewMessageBatcher.DEFAULT_MAX_MESSAGES
+        val maxBytes = if (config.hasKey("maxBytes")) config.getInt("maxBytes") else RNCWebViewMessageBatcher.DEFAULT_MAX_BYTES
+        view.setMessageBatcher(RNCWebViewMessageBatcher(view, intervalMs, maxMessages, maxBytes))
+    }
+
+    fun setNavigationRules(viewWrapper: RNCWebViewWrapper, value: ReadableArray?) {
+        val view = viewWrapper.webView
+        view.setNavigationRules(RNCWebViewNavigationRules.compile(value))
+    }
+
+    fun setShouldStartLoadMode(viewWrapper: RNCWebViewWrapper, value: String?) {
+        val view = viewWrapper.webView
+        view.setShouldStartLoadAsync("async" == value)
+    }
+
+    fun setShouldStartLoadTimeout(viewWrapper: RNCWebViewWrapper, value: Int) {
+        val view = viewWrapper.webView
+        view.setShouldStartLoadTimeout(value.toLong())
+    }
+
+    fun setShouldStartLoadTimeoutPolicy(viewWrapper: RNCWebViewWrapper, value: String?) {
+        val view = viewWrapper.webView
+        view.setShouldStartLoadTimeoutPolicy(RNCWebViewNavigationDecisions.TimeoutPolicy.fromString(value))
+    }
+
+    fun setHasOnShouldStartLoadTimeout(viewWrapper: RNCWebViewWrapper, value: Boolean) {
+        val view = viewWrapper.webView
+        view.setHasShouldStartLoadTimeoutListener(value)
+    }
+
+    fun setNativeStoreValues(viewWrapper: RNCWebViewWrapper, value: String?) {
+        val view = viewWrapper.webView
+        view.setNativeStoreValues(value)
+    }
+
+    fun setNativeStoreOrigins(viewWrapper: RNCWebViewWrapper, value: ReadableArray?) {
+        val view = viewWrapper.webView
+        view.setNativeStoreOrigins(value?.toArrayList()?.map { it.toString() })
+    }
+
+    fun setParseJsonMessages(viewWrapper: RNCWebViewWrapper, value: Boolean) {
+        val view = viewWrapper.webView
+        view.setParseJsonMessages(value)
+    }
+
+    fun setLeanMessageEvents(viewWrapper: RNCWebViewWrapper, value: Boolean) {
+        val view = viewWrapper.webView
+        view.setLeanMessageEvents(value)
+    }
+
+    fun setMessageGroups(viewWrapper: RNCWebViewWrapper, value: ReadableArray?) {
+        val view = viewWrapper.webView
+        view.setMessageGroups(value?.toArrayList()?.map { it.toString() })
+    }
+
+    fun setMessageOriginAllowlist(viewWrapper: RNCWebViewWrapper, value: ReadableArray?) {
+        val view = viewWrapper.webView
+        view.setMessageOriginAllowlist(value?.toArrayList()?.map { it.toString() })
+    }
+
+    fun setMessageChunking(viewWrapper: RNCWebViewWrapper, config: ReadableMap?) {
+        val view = viewWrapper.webView
+        val mode = if (config != null && config.hasKey("mode") && config.getString("mode") == "stream") {
+            RNCWebViewChunkAssembler.Mode.STREAM
+        } else {
+            RNCWebViewChunkAssembler.Mode.ASSEMBLE
+        }
+        val maxMessageSize = if (config != null && config.hasKey("maxMessageSize")) {
+            config.getInt("maxMessageSize")
+        } else {
+            RNCWebViewChunkAssembler.DEFAULT_MAX_MESSAGE_SIZE
+        }
+        view.setMessageChunking(mode, maxMessageSize)
+    }
+
+    fun setMessageQueue(viewWrapper: RNCWebViewWrapper, config: ReadableMap?) {
+        val view = viewWrapper.webView
+        if (config == null) {
+            view.setMessageQueue(null)
+            return
+        }
+        val capacity = if (config.hasKey("capacity")) config.getInt("capacity") else RNCWebViewMessageQueue.DEFAULT_CAPACITY
+        val maxInFlight = if (config.hasKey("maxInFlight")) config.getInt("maxInFlight") else RNCWebViewMessageQueue.DEFAULT_MAX_IN_FLIGHT
+        val policy = RNCWebViewMessageQueue.OverflowPolicy.fromString(
+            if (config.hasKey("overflowPolicy")) config.getString("overflowPolicy") else null
+        )
+        val delimiter = if (config.hasKey("topicDelimiter")) config.getString("topicDelimiter") else null
+        val priorityTopics = HashSet<String>()
+        if (config.hasKey("priorityTopics")) {
+            config.getArray("priorityTopics")?.toArrayList()?.forEach { priorityTopics.add(it.toString()) }
+        }
+        view.setMessageQueue(
+            RNCWebViewMessageQueue(
+                view,
+                capacity,
+                maxInFlight,
+                policy,
+                if (delimiter.isNullOrEmpty()) RNCWebViewMessageQueue.DEFAULT_TOPIC_DELIMITER else delimiter[0],
+                priorityTopics
+            )
+        )
+    }
+
+    fun setMessageReplayBuffer(viewWrapper: RNCWebViewWrapper, config: ReadableMap?) {
+        val view = viewWrapper.webView
+        if (config == null) {
+            view.setMessageReplayBuffer(null)
+            return
+        }
+        val maxMessages = if (config.hasKey("maxMessages")) config.getInt("maxMessages") else RNCWebViewMessageReplayBuffer.DEFAULT_MAX_MESSAGES
+        val maxAgeMs = if (config.hasKey("maxAgeMs")) config.getInt("maxAgeMs") else RNCWebViewMessageReplayBuffer.DEFAULT_MAX_AGE_MS
+        view.setMessageReplayBuffer(RNCWebViewMessageReplayBuffer(view, maxMessages, maxAgeMs))
+    }
+
     fun setMediaPlaybackRequiresUserAction(viewWrapper: RNCWebViewWrapper, value: Boolean) {
         val view = viewWrapper.webView
         view.settings.mediaPlaybackRequiresUserGesture = value
@@ -0,0 +1,55 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * A single message posted by the page through {@code window.ReactNativeWebView.postMessage}.
+ */
+class RNCWebViewMessage {
+    final String data;
+    final @Nullable String sourceUrl;
+    final boolean isMainFrame;
+    /**
+     * {@link System#nanoTime()} when the bridge received the message.
+     */
+    final long receivedAtNanos;
+    /**
+     * The message parsed by {@link RNCWebViewJsonParser}, when `parseJsonMessages` is set and the
+     * message is a JSON object or array.
+     */
+    final @Nullable Object json;
+
+    RNCWebViewMessage(String data, @Nullable String sourceUrl, boolean isMainFrame, long receivedAtNanos, @Nullable Object json) {
+        this.data = data;
+        this.sourceUrl = sourceUrl;
+        this.isMainFrame = isMainFrame;
+        this.receivedAtNanos = receivedAtNanos;
+        this.json = json;
+    }
+
+    /**
+     * Puts the payload on an event: the parsed value as `json` (with an empty `data`) when there
+     * is one, the raw string as `data` otherwise.
+     */
+    void writeData(WritableMap event) {
+        if (json instanceof WritableMap) {
+            event.putString("data", "");
+            event.putMap("json", (WritableMap) json);
+        } else if (json instanceof WritableArray) {
+            event.putString("data", "");
+            event.putArray("json", (WritableArray) json);
+        } else {
+            event.putString("data", data);
+        }
+    }
+
+    /**
+     * Approximate in-memory size of the payload (UTF-16), used to enforce batch limits.
+     */
+    int byteSize() {
+        return data.length() * 2;
+    }
+}
@@ -0,0 +1,143 @@
+package com.reactnativecommunity.webview;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the messages posted by a page and hands them to JS as a single event, either once per
+ * frame or once per configured interval. A batch is flushed early when it reaches the configured
+ * message count or byte size.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewMessageBatcher implements Choreographer.FrameCallback, Runnable {
+    static final int DEFAULT_MAX_MESSAGES = 100;
+    static final int DEFAULT_MAX_BYTES = 1024 * 1024;
+
+    /**
+     * Receives the batches and runs the interval timer. The WebView outside of unit tests.
+     */
+    interface Target {
+        void dispatchMessageBatch(List<RNCWebViewMessage> messages);
+
+        void postDelayed(Runnable task, long delayMs);
+
+        void removeCallbacks(Runnable task);
+    }
+
+    private final Target mTarget;
+    private final int mIntervalMs;
+    private final int mMaxMessages;
+    private final int mMaxBytes;
+
+    private final List<RNCWebViewMessage> mPending = new ArrayList<>();
+    private int mPendingBytes = 0;
+    private boolean mFlushScheduled = false;
+
+    /**
+     * @param intervalMs batching window, or {@code 0} to flush on the next frame
+     * @param maxMessages maximum number of messages per batch
+     * @param maxBytes maximum approximate payload size per batch
+     */
+    RNCWebViewMessageBatcher(RNCWebView webView, int intervalMs, int maxMessages, int maxBytes) {
+        this(new Target() {
+            @Override
+            public void dispatchMessageBatch(List<RNCWebViewMessage> messages) {
+                webView.dispatchMessageBatch(messages);
+            }
+
+            @Override
+            public void postDelayed(Runnable task, long delayMs) {
+                webView.postDelayed(task, delayMs);
+            }
+
+            @Override
+            public void removeCallbacks(Runnable task) {
+                webView.removeCallbacks(task);
+            }
+        }, intervalMs, maxMessages, maxBytes);
+    }
+
+    RNCWebViewMessageBatcher(Target target, int intervalMs, int maxMessages, int maxBytes) {
+        mTarget = target;
+        mIntervalMs = Math.max(0, intervalMs);
+        mMaxMessages = maxMessages > 0 ? maxMessages : DEFAULT_MAX_MESSAGES;
+        mMaxBytes = maxBytes > 0 ? maxBytes : DEFAULT_MAX_BYTES;
+    }
+
+    void enqueue(RNCWebViewMessage message) {
+        int size = message.byteSize();
+        if (!mPending.isEmpty() && mPendingBytes + size > mMaxBytes) {
+            flush();
+        }
+
+        mPending.add(message);
+        mPendingBytes += size;
+
+        if (mPending.size() >= mMaxMessages || mPendingBytes >= mMaxBytes) {
+            flush();
+        } else {
+            scheduleFlush();
+        }
+    }
+
+    void flush() {
+        cancelScheduledFlush();
+        if (mPending.isEmpty()) {
+            return;
+        }
+
+        List<RNCWebViewMessage> batch = new ArrayList<>(mPending);
+        mPending.clear();
+        mPendingBytes = 0;
+
+        mTarget.dispatchMessageBatch(batch);
+    }
+
+    /**
+     * Drops pending messages without delivering them, e.g. when the view is destroyed.
+     */
+    void cancel() {
+        cancelScheduledFlush();
+        mPending.clear();
+        mPendingBytes = 0;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFlushScheduled = false;
+        flush();
+    }
+
+    @Override
+    public void run() {
+        mFlushScheduled = false;
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (mFlushScheduled) {
+            return;
+        }
+        mFlushScheduled = true;
+        if (mIntervalMs == 0) {
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            mTarget.postDelayed(this, mIntervalMs);
+        }
+    }
+
+    private void cancelScheduledFlush() {
+        if (!mFlushScheduled) {
+            return;
+        }
+        mFlushScheduled = false;
+        if (mIntervalMs == 0) {
+            Choreographer.getInstance().removeFrameCallback(this);
+        } else {
+            mTarget.removeCallbacks(this);
+        }
+    }
+}
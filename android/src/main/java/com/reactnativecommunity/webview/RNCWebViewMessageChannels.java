@@ -0,0 +1,198 @@
+package com.reactnativecommunity.webview;
+
+import android.net.Uri;
+
+import androidx.annotation.Nullable;
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebMessagePortCompat;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+
+import com.facebook.common.logging.FLog;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Named message channels between the app and the page, each backed by its own
+ * {@link WebViewCompat#createWebMessageChannel} port pair. Messages on a channel only wake up the
+ * listeners of that channel, on both sides, instead of every `ReactNativeWebView` listener.
+ * <p>
+ * The app opens a channel by name. Once the document has loaded, the page end of the port pair is
+ * posted to the main frame as {@code <PORT_MESSAGE_PREFIX><name>} and picked up by
+ * {@link #PAGE_SCRIPT}, which hands it out through {@code ReactNativeWebView.getChannel(name)}.
+ * Ports belong to a single document, every open channel gets a new port pair after a navigation.
+ * The page script relies on {@code window.ReactNativeWebView}, so channels only work with messaging
+ * enabled, and only documents with an origin (http and https pages) can be connected.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewMessageChannels {
+    private static final String TAG = "RNCWebViewMessageChannels";
+
+    static final String PORT_MESSAGE_PREFIX = "__rncwebview_channel:";
+
+    static final String PAGE_SCRIPT = "(function () {\n" +
+      "  var bridge = window." + RNCWebView.JAVASCRIPT_INTERFACE + ";\n" +
+      "  if (!bridge || bridge.getChannel) return;\n" +
+      "  var prefix = '" + PORT_MESSAGE_PREFIX + "';\n" +
+      "  var ports = {};\n" +
+      "  var waiting = {};\n" +
+      "  window.addEventListener('message', function (event) {\n" +
+      "    if (typeof event.data !== 'string' || event.data.indexOf(prefix) !== 0 || !event.ports || !event.ports[0]) return;\n" +
+      "    event.stopImmediatePropagation();\n" +
+      "    var name = event.data.substring(prefix.length);\n" +
+      "    ports[name] = event.ports[0];\n" +
+      "    (waiting[name] || []).forEach(function (resolve) { resolve(event.ports[0]); });\n" +
+      "    delete waiting[name];\n" +
+      "  }, true);\n" +
+      "  bridge.getChannel = function (name) {\n" +
+      "    if (ports[name]) return Promise.resolve(ports[name]);\n" +
+      "    return new Promise(function (resolve) {\n" +
+      "      (waiting[name] = waiting[name] || []).push(resolve);\n" +
+      "    });\n" +
+      "  };\n" +
+      "})();";
+
+    private final RNCWebView mWebView;
+    private final Set<String> mNames = new LinkedHashSet<>();
+    private final Map<String, WebMessagePortCompat> mPorts = new HashMap<>();
+    private boolean mDocumentReady = false;
+
+    RNCWebViewMessageChannels(RNCWebView webView) {
+        mWebView = webView;
+    }
+
+    static boolean isSupported() {
+        return WebViewFeature.isFeatureSupported(WebViewFeature.CREATE_WEB_MESSAGE_CHANNEL)
+          && WebViewFeature.isFeatureSupported(WebViewFeature.POST_WEB_MESSAGE)
+          && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_PORT_POST_MESSAGE)
+          && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_PORT_SET_MESSAGE_CALLBACK)
+          && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_PORT_CLOSE);
+    }
+
+    void open(String name) {
+        if (!isSupported()) {
+            FLog.w(TAG, "Message channels are not supported by this WebView, ignoring channel " + name + ".");
+            return;
+        }
+        mNames.add(name);
+        if (mDocumentReady && !mPorts.containsKey(name)) {
+            mWebView.evaluateJavascriptWithFallback(PAGE_SCRIPT);
+            connect(name);
+        }
+    }
+
+    void close(String name) {
+        mNames.remove(name);
+        closePort(name);
+    }
+
+    /**
+     * @return whether the message was sent, i.e. the channel is connected to the current document
+     */
+    boolean post(String name, String data) {
+        WebMessagePortCompat port = mPorts.get(name);
+        if (port == null) {
+            return false;
+        }
+        port.postMessage(new WebMessageCompat(data));
+        return true;
+    }
+
+    /**
+     * The ports of the previous document are gone, forget them.
+     */
+    void onPageStarted() {
+        mDocumentReady = false;
+        for (String name : mNames) {
+            closePort(name);
+        }
+    }
+
+    void onPageFinished() {
+        mDocumentReady = true;
+        if (mNames.isEmpty()) {
+            return;
+        }
+        // Installed by a document-start script when possible, this covers the other WebViews.
+        mWebView.evaluateJavascriptWithFallback(PAGE_SCRIPT);
+        for (String name : mNames) {
+            if (!mPorts.containsKey(name)) {
+                connect(name);
+            }
+        }
+    }
+
+    void clear() {
+        for (String name : mNames) {
+            closePort(name);
+        }
+        mNames.clear();
+    }
+
+    private void connect(String name) {
+        if (!mWebView.isMessageOriginAllowed()) {
+            // Ports are only handed to pages allowed to post messages.
+            return;
+        }
+        // The port is posted to this origin only, so a navigation after the check above cannot
+        // hand it to another page.
+        Uri targetOrigin = originOf(mWebView.getUrl());
+        if (targetOrigin == null) {
+            FLog.w(TAG, "Not connecting channel " + name + ", the current document has no origin to post the port to.");
+            return;
+        }
+
+        WebMessagePortCompat[] ports = WebViewCompat.createWebMessageChannel(mWebView);
+        WebMessagePortCompat appPort = ports[0];
+        appPort.setWebMessageCallback(new WebMessagePortCompat.WebMessageCallbackCompat() {
+            @Override
+            public void onMessage(WebMessagePortCompat port, @Nullable WebMessageCompat message) {
+                if (message == null || mPorts.get(name) != port) {
+                    return;
+                }
+                String data = RNCWebViewArrayBuffers.getString(message);
+                if (data != null) {
+                    mWebView.dispatchChannelMessage(name, data);
+                }
+            }
+        });
+        mPorts.put(name, appPort);
+        WebViewCompat.postWebMessage(
+          mWebView,
+          new WebMessageCompat(PORT_MESSAGE_PREFIX + name, new WebMessagePortCompat[]{ports[1]}),
+          targetOrigin
+        );
+    }
+
+    private static @Nullable Uri originOf(@Nullable String url) {
+        Uri uri = url == null ? null : Uri.parse(url);
+        String origin = uri == null ? null : originOf(uri.getScheme(), uri.getHost(), uri.getPort());
+        return origin == null ? null : Uri.parse(origin);
+    }
+
+    /**
+     * @return {@code scheme://host[:port]}, or {@code null} for URLs without a host such as
+     * {@code about:blank} or {@code data:} URLs
+     */
+    static @Nullable String originOf(@Nullable String scheme, @Nullable String host, int port) {
+        if (scheme == null || host == null || host.isEmpty()) {
+            return null;
+        }
+        String origin = scheme + "://" + host;
+        if (port != -1) {
+            origin += ":" + port;
+        }
+        return origin;
+    }
+
+    private void closePort(String name) {
+        WebMessagePortCompat port = mPorts.remove(name);
+        if (port != null) {
+            port.close();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Native handler for page messages that do not need to reach JS, such as analytics beacons or log
+ * lines. Register it with {@link RNCWebViewModuleImpl#addMessageConsumer} or
+ * {@link RNCWebViewModuleImpl#addEnvelopeMessageConsumer}; messages it matches are consumed on a
+ * background thread and are not dispatched to JS.
+ */
+public interface RNCWebViewMessageConsumer {
+    /**
+     * Called on a background thread, in the order the messages were posted.
+     *
+     * @param webViewId the `webViewId` prop of the WebView that received the message, if any
+     * @param data the message as posted by the page
+     * @param sourceUrl origin of the frame that posted the message
+     */
+    void onMessage(@Nullable String webViewId, String data, @Nullable String sourceUrl, boolean isMainFrame);
+}
@@ -0,0 +1,176 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.common.logging.FLog;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide list of {@link RNCWebViewMessageConsumer}s. A consumer matches messages either by
+ * prefix or by envelope type, i.e. the `type` field of a JSON object message, which is looked up in
+ * the first {@link #ENVELOPE_SCAN_LIMIT} characters only.
+ * <p>
+ * Safe to use from any thread.
+ */
+class RNCWebViewMessageConsumerRegistry {
+    private static final String TAG = "RNCWebViewMessageConsumers";
+    static final int ENVELOPE_SCAN_LIMIT = 256;
+
+    private static class Registration {
+        final @Nullable String prefix;
+        final @Nullable String envelopeType;
+        final RNCWebViewMessageConsumer consumer;
+
+        Registration(@Nullable String prefix, @Nullable String envelopeType, RNCWebViewMessageConsumer consumer) {
+            this.prefix = prefix;
+            this.envelopeType = envelopeType;
+            this.consumer = consumer;
+        }
+    }
+
+    private static final List<Registration> sRegistrations = new CopyOnWriteArrayList<>();
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    static void addPrefix(String prefix, RNCWebViewMessageConsumer consumer) {
+        sRegistrations.add(new Registration(prefix, null, consumer));
+    }
+
+    static void addEnvelopeType(String type, RNCWebViewMessageConsumer consumer) {
+        sRegistrations.add(new Registration(null, type, consumer));
+    }
+
+    static void remove(RNCWebViewMessageConsumer consumer) {
+        for (Registration registration : sRegistrations) {
+            if (registration.consumer == consumer) {
+                sRegistrations.remove(registration);
+            }
+        }
+    }
+
+    /**
+     * Hands the message to the first matching consumer.
+     *
+     * @return whether the message was consumed and must not be dispatched to JS
+     */
+    static boolean consume(@Nullable String webViewId, String data, @Nullable String sourceUrl, boolean isMainFrame) {
+        if (sRegistrations.isEmpty()) {
+            return false;
+        }
+
+        String envelopeType = null;
+        boolean envelopeParsed = false;
+        for (Registration registration : sRegistrations) {
+            boolean matches;
+            if (registration.prefix != null) {
+                matches = data.startsWith(registration.prefix);
+            } else {
+                if (!envelopeParsed) {
+                    envelopeType = envelopeTypeOf(data);
+                    envelopeParsed = true;
+                }
+                matches = registration.envelopeType.equals(envelopeType);
+            }
+
+            if (matches) {
+                RNCWebViewMessageConsumer consumer = registration.consumer;
+                sExecutor.execute(() -> {
+                    try {
+                        consumer.onMessage(webViewId, data, sourceUrl, isMainFrame);
+                    } catch (RuntimeException e) {
+                        FLog.e(TAG, "Message consumer failed.", e);
+                    }
+                });
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the string value of a top-level `"type"` key near the start of a JSON object, without
+     * parsing the whole message. Nested objects and arrays as well as string contents are skipped,
+     * so only a key of the outer object matches.
+     */
+    static @Nullable String envelopeTypeOf(String data) {
+        int limit = Math.min(data.length(), ENVELOPE_SCAN_LIMIT);
+        int start = 0;
+        while (start < limit && Character.isWhitespace(data.charAt(start))) {
+            start++;
+        }
+        if (start >= limit || data.charAt(start) != '{') {
+            return null;
+        }
+
+        int depth = 0;
+        for (int i = start; i < limit; i++) {
+            char c = data.charAt(i);
+            if (c == '"') {
+                if (depth == 1 && data.regionMatches(i, "\"type\"", 0, 6)) {
+                    String type = stringValueAfterKey(data, i + 6, limit);
+                    if (type != null) {
+                        return type;
+                    }
+                }
+                i = skipString(data, i, limit);
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the index of the quote closing the string opened at {@code quote}, or {@code limit}
+     */
+    private static int skipString(String data, int quote, int limit) {
+        for (int i = quote + 1; i < limit; i++) {
+            char c = data.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * @return the value if the string at {@code i} is a key followed by a plain string value,
+     * {@code null} otherwise, e.g. when {@code "type"} was itself a value
+     */
+    private static @Nullable String stringValueAfterKey(String data, int i, int limit) {
+        while (i < limit && Character.isWhitespace(data.charAt(i))) {
+            i++;
+        }
+        if (i >= limit || data.charAt(i) != ':') {
+            return null;
+        }
+        i++;
+        while (i < limit && Character.isWhitespace(data.charAt(i))) {
+            i++;
+        }
+        if (i >= limit || data.charAt(i) != '"') {
+            return null;
+        }
+        for (int end = i + 1; end < limit; end++) {
+            char c = data.charAt(end);
+            if (c == '\\') {
+                // Envelope types are plain names, escaped ones are not looked at.
+                return null;
+            }
+            if (c == '"') {
+                return data.substring(i + 1, end);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.reactnativecommunity.webview;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups of WebViews that receive the same messages, set with the `messageGroups` prop. A message
+ * broadcast to a group crosses from JS once and is handed to every member; the script used by
+ * members without a reply proxy is built once and shared.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewMessageGroups {
+    private static final Map<String, Set<RNCWebView>> sGroups = new HashMap<>();
+
+    static void update(RNCWebView webView, List<String> previousGroups, List<String> groups) {
+        for (String group : previousGroups) {
+            Set<RNCWebView> members = sGroups.get(group);
+            if (members != null) {
+                members.remove(webView);
+                if (members.isEmpty()) {
+                    sGroups.remove(group);
+                }
+            }
+        }
+        for (String group : groups) {
+            Set<RNCWebView> members = sGroups.get(group);
+            if (members == null) {
+                members = new LinkedHashSet<>();
+                sGroups.put(group, members);
+            }
+            members.add(webView);
+        }
+    }
+
+    static void broadcast(String group, String data) {
+        Set<RNCWebView> members = sGroups.get(group);
+        if (members == null) {
+            return;
+        }
+
+        String script = null;
+        for (RNCWebView webView : members) {
+            if (script == null && !webView.canPostMessageDirectly()) {
+                script = RNCWebView.createPostMessageScript(data);
+            }
+            webView.postMessage(data, script);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.reactnativecommunity.webview;
+
+import android.util.SparseArray;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded outbound queue for the messages posted by a page.
+ * <p>
+ * At most {@code maxInFlight} messages are handed to JS before JS acknowledges them through
+ * {@code RNCWebViewModule.ackMessages}, so a busy JS thread makes messages wait here instead of
+ * piling up as events. Once {@code capacity} messages are waiting, the overflow policy decides
+ * which message is lost:
+ * <ul>
+ *   <li>{@link OverflowPolicy#DROP_OLDEST} drops the oldest waiting message,</li>
+ *   <li>{@link OverflowPolicy#DROP_NEWEST} drops the incoming message,</li>
+ *   <li>{@link OverflowPolicy#LATEST_WINS} replaces the waiting message with the same topic, at any
+ *   depth, and drops the oldest message when the topic is new.</li>
+ * </ul>
+ * The topic of a message is the text before {@code topicDelimiter}, looked up in the first
+ * {@link #TOPIC_SCAN_LIMIT} characters only. Messages whose topic is listed in
+ * {@code priorityTopics} go to a separate lane that is always drained first.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewMessageQueue {
+    enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        LATEST_WINS;
+
+        static OverflowPolicy fromString(@Nullable String value) {
+            if ("dropNewest".equals(value)) {
+                return DROP_NEWEST;
+            }
+            if ("latestWins".equals(value)) {
+                return LATEST_WINS;
+            }
+            return DROP_OLDEST;
+        }
+    }
+
+    static final int DEFAULT_CAPACITY = 200;
+    static final int DEFAULT_MAX_IN_FLIGHT = 16;
+    static final char DEFAULT_TOPIC_DELIMITER = ':';
+    static final int TOPIC_SCAN_LIMIT = 64;
+
+    /**
+     * Hands a message to JS. {@link RNCWebView#deliverMessage} outside of unit tests.
+     */
+    interface Delivery {
+        /**
+         * @return whether the message was dispatched
+         */
+        boolean deliver(RNCWebViewMessage message);
+    }
+
+    private static final SparseArray<RNCWebViewMessageQueue> sQueues = new SparseArray<>();
+    private static int sNextQueueId = 1;
+
+    private static class Entry {
+        RNCWebViewMessage message;
+        final @Nullable String topic;
+
+        Entry(RNCWebViewMessage message, @Nullable String topic) {
+            this.message = message;
+            this.topic = topic;
+        }
+    }
+
+    int id;
+    private final Delivery mDelivery;
+    private final int mCapacity;
+    private final int mMaxInFlight;
+    private final OverflowPolicy mPolicy;
+    private final char mTopicDelimiter;
+    private final Set<String> mPriorityTopics;
+
+    private final ArrayDeque<Entry> mPriorityLane = new ArrayDeque<>();
+    private final ArrayDeque<Entry> mBulkLane = new ArrayDeque<>();
+    private final Map<String, Entry> mEntriesByTopic = new HashMap<>();
+    private int mInFlight = 0;
+
+    private long mEnqueued = 0;
+    private long mDelivered = 0;
+    private long mDroppedOldest = 0;
+    private long mDroppedNewest = 0;
+    private long mCoalesced = 0;
+    private int mMaxDepth = 0;
+
+    RNCWebViewMessageQueue(RNCWebView webView, int capacity, int maxInFlight, OverflowPolicy policy,
+                           char topicDelimiter, Set<String> priorityTopics) {
+        this(webView::deliverMessage, capacity, maxInFlight, policy, topicDelimiter, priorityTopics);
+    }
+
+    RNCWebViewMessageQueue(Delivery delivery, int capacity, int maxInFlight, OverflowPolicy policy,
+                           char topicDelimiter, Set<String> priorityTopics) {
+        id = sNextQueueId++;
+        mDelivery = delivery;
+        mCapacity = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+        mMaxInFlight = maxInFlight > 0 ? maxInFlight : DEFAULT_MAX_IN_FLIGHT;
+        mPolicy = policy;
+        mTopicDelimiter = topicDelimiter;
+        mPriorityTopics = priorityTopics;
+        sQueues.put(id, this);
+    }
+
+    static void ack(int queueId, int count) {
+        RNCWebViewMessageQueue queue = sQueues.get(queueId);
+        if (queue != null) {
+            queue.ack(count);
+        }
+    }
+
+    void offer(RNCWebViewMessage message) {
+        mEnqueued++;
+        String topic = needsTopic() ? topicOf(message.data) : null;
+
+        if (mPolicy == OverflowPolicy.LATEST_WINS && topic != null) {
+            Entry queued = mEntriesByTopic.get(topic);
+            if (queued != null) {
+                queued.message = message;
+                mCoalesced++;
+                return;
+            }
+        }
+
+        if (depth() >= mCapacity) {
+            if (mPolicy == OverflowPolicy.DROP_NEWEST) {
+                mDroppedNewest++;
+                return;
+            }
+            dropOldest();
+        }
+
+        Entry entry = new Entry(message, topic);
+        if (topic != null && mPriorityTopics.contains(topic)) {
+            mPriorityLane.add(entry);
+        } else {
+            mBulkLane.add(entry);
+        }
+        if (mPolicy == OverflowPolicy.LATEST_WINS && topic != null) {
+            mEntriesByTopic.put(topic, entry);
+        }
+        mMaxDepth = Math.max(mMaxDepth, depth());
+
+        drain();
+    }
+
+    void ack(int count) {
+        mInFlight = Math.max(0, mInFlight - count);
+        drain();
+    }
+
+    /**
+     * Forgets the messages handed to JS and not acknowledged yet, e.g. when a new page starts or the
+     * client changes and their events may never arrive. The queue is registered under a new id, so
+     * late acknowledgements for those messages are ignored.
+     */
+    void resetInFlight() {
+        sQueues.remove(id);
+        id = sNextQueueId++;
+        sQueues.put(id, this);
+        mInFlight = 0;
+        drain();
+    }
+
+    /**
+     * Unregisters the queue and forgets the waiting messages, e.g. when the view is destroyed or
+     * the queue is replaced.
+     */
+    void release() {
+        sQueues.remove(id);
+        mPriorityLane.clear();
+        mBulkLane.clear();
+        mEntriesByTopic.clear();
+    }
+
+    WritableMap getStats() {
+        WritableMap stats = Arguments.createMap();
+        stats.putInt("depth", depth());
+        stats.putInt("priorityDepth", mPriorityLane.size());
+        stats.putInt("maxDepth", mMaxDepth);
+        stats.putInt("inFlight", mInFlight);
+        stats.putDouble("enqueued", mEnqueued);
+        stats.putDouble("delivered", mDelivered);
+        stats.putDouble("droppedOldest", mDroppedOldest);
+        stats.putDouble("droppedNewest", mDroppedNewest);
+        stats.putDouble("coalesced", mCoalesced);
+        return stats;
+    }
+
+    private void drain() {
+        while (mInFlight < mMaxInFlight) {
+            ArrayDeque<Entry> lane = mPriorityLane.isEmpty() ? mBulkLane : mPriorityLane;
+            Entry entry = lane.peek();
+            if (entry == null) {
+                return;
+            }
+            // A message that cannot be dispatched yet keeps its place, it would never be
+            // acknowledged. Draining resumes once the client is set again.
+            if (!mDelivery.deliver(entry.message)) {
+                return;
+            }
+            lane.poll();
+            forgetTopic(entry);
+            mInFlight++;
+            mDelivered++;
+        }
+    }
+
+    private void dropOldest() {
+        // Bulk messages go first, priority messages are only dropped when nothing else is waiting.
+        Entry dropped = mBulkLane.poll();
+        if (dropped == null) {
+            dropped = mPriorityLane.poll();
+        }
+        if (dropped != null) {
+            forgetTopic(dropped);
+            mDroppedOldest++;
+        }
+    }
+
+    private void forgetTopic(Entry entry) {
+        if (entry.topic != null && mEntriesByTopic.get(entry.topic) == entry) {
+            mEntriesByTopic.remove(entry.topic);
+        }
+    }
+
+    private int depth() {
+        return mPriorityLane.size() + mBulkLane.size();
+    }
+
+    private boolean needsTopic() {
+        return mPolicy == OverflowPolicy.LATEST_WINS || !mPriorityTopics.isEmpty();
+    }
+
+    private @Nullable String topicOf(String data) {
+        int limit = Math.min(data.length(), TOPIC_SCAN_LIMIT);
+        for (int i = 0; i < limit; i++) {
+            if (data.charAt(i) == mTopicDelimiter) {
+                return data.substring(0, i);
+            }
+        }
+        return null;
+    }
+}
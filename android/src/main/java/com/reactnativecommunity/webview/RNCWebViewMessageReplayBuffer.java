@@ -0,0 +1,88 @@
+package com.reactnativecommunity.webview;
+
+import com.facebook.common.logging.FLog;
+
+import java.util.ArrayDeque;
+
+/**
+ * Holds page messages that arrive while nothing on the React Native side can receive them, e.g.
+ * before the WebView client is set, or while the view is detached and has no react tag. Once the
+ * WebView can dispatch again the messages are replayed in the order they were posted.
+ * <p>
+ * At most {@code maxMessages} messages are kept, the oldest one is dropped to make room for a new
+ * one. Messages older than {@code maxAgeMs} are dropped instead of being replayed.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewMessageReplayBuffer {
+    private static final String TAG = "RNCWebViewMessageReplayBuffer";
+
+    static final int DEFAULT_MAX_MESSAGES = 100;
+    static final int DEFAULT_MAX_AGE_MS = 10_000;
+
+    /**
+     * Takes the replayed messages. {@link RNCWebView#offerMessage} outside of unit tests.
+     */
+    interface Target {
+        void offerMessage(RNCWebViewMessage message);
+    }
+
+    private final Target mTarget;
+    private final int mMaxMessages;
+    private final long mMaxAgeNanos;
+    private final ArrayDeque<RNCWebViewMessage> mMessages = new ArrayDeque<>();
+    private int mDropped = 0;
+
+    RNCWebViewMessageReplayBuffer(RNCWebView webView, int maxMessages, int maxAgeMs) {
+        this(webView::offerMessage, maxMessages, maxAgeMs);
+    }
+
+    RNCWebViewMessageReplayBuffer(Target target, int maxMessages, int maxAgeMs) {
+        mTarget = target;
+        mMaxMessages = maxMessages > 0 ? maxMessages : DEFAULT_MAX_MESSAGES;
+        mMaxAgeNanos = (maxAgeMs > 0 ? maxAgeMs : DEFAULT_MAX_AGE_MS) * 1_000_000L;
+    }
+
+    void add(RNCWebViewMessage message) {
+        dropExpired();
+        if (mMessages.size() >= mMaxMessages) {
+            mMessages.poll();
+            mDropped++;
+        }
+        mMessages.add(message);
+    }
+
+    boolean isEmpty() {
+        return mMessages.isEmpty();
+    }
+
+    /**
+     * Hands the buffered messages to the WebView, oldest first.
+     */
+    void replay() {
+        dropExpired();
+        if (mDropped > 0) {
+            FLog.w(TAG, "Dropped " + mDropped + " page messages posted while the WebView could not deliver them.");
+            mDropped = 0;
+        }
+
+        RNCWebViewMessage message;
+        while ((message = mMessages.poll()) != null) {
+            mTarget.offerMessage(message);
+        }
+    }
+
+    void clear() {
+        mMessages.clear();
+        mDropped = 0;
+    }
+
+    private void dropExpired() {
+        long now = System.nanoTime();
+        RNCWebViewMessage oldest;
+        while ((oldest = mMessages.peek()) != null && now - oldest.receivedAtNanos > mMaxAgeNanos) {
+            mMessages.poll();
+            mDropped++;
+        }
+    }
+}
@@ -16,9 +16,9 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.core.content.ContextCompat;
 import androidx.core.content.FileProvider;
-import androidx.core.util.Pair;
 
 import android.util.Log;
+import android.view.View;
 import android.webkit.MimeTypeMap;
 import android.webkit.ValueCallback;
 import android.webkit.WebChromeClient;
@@ -30,17 +30,19 @@ import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.UIManager;
+import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.core.PermissionAwareActivity;
 import com.facebook.react.modules.core.PermissionListener;
+import com.facebook.react.uimanager.UIManagerHelper;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.SecurityException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.concurrent.atomic.AtomicReference;
 
 import static android.app.Activity.RESULT_OK;
 
@@ -134,34 +136,25 @@ public class RNCWebViewModuleImpl implements ActivityEventListener {
 
     }
 
-    protected static class ShouldOverrideUrlLoadingLock {
-        protected enum ShouldOverrideCallbackState {
-            UNDECIDED,
-            SHOULD_OVERRIDE,
-            DO_NOT_OVERRIDE,
-        }
-
-        private double nextLockIdentifier = 1;
-        private final HashMap<Double, AtomicReference<ShouldOverrideCallbackState>> shouldOverrideLocks = new HashMap<>();
-
-        public synchronized Pair<Double, AtomicReference<ShouldOverrideCallbackState>> getNewLock() {
-            final double lockIdentifier = nextLockIdentifier++;
-            final AtomicReference<ShouldOverrideCallbackState> shouldOverride = new AtomicReference<>(ShouldOverrideCallbackState.UNDECIDED);
-            shouldOverrideLocks.put(lockIdentifier, shouldOverride);
-            return new Pair<>(lockIdentifier, shouldOverride);
-        }
-
-        @Nullable
-        public synchronized AtomicReference<ShouldOverrideCallbackState> getLock(Double lockIdentifier) {
-            return shouldOverrideLocks.get(lockIdentifier);
-        }
+    /**
+     * Consumes, on a background thread, every page message that starts with the given prefix. Such
+     * messages are not dispatched to JS.
+     */
+    public static void addMessageConsumer(String prefix, RNCWebViewMessageConsumer consumer) {
+        RNCWebViewMessageConsumerRegistry.addPrefix(prefix, consumer);
+    }
 
-        public synchronized void removeLock(Double lockIdentifier) {
-            shouldOverrideLocks.remove(lockIdentifier);
-        }
+    /**
+     * Consumes, on a background thread, every page message that is a JSON object whose `type` is the
+     * given one, e.g. `{"type":"analytics",...}`. Such messages are not dispatched to JS.
+     */
+    public static void addEnvelopeMessageConsumer(String type, RNCWebViewMessageConsumer consumer) {
+        RNCWebViewMessageConsumerRegistry.addEnvelopeType(type, consumer);
     }
 
-    protected static final ShouldOverrideUrlLoadingLock shouldOverrideUrlLoadingLock = new ShouldOverrideUrlLoadingLock();
+    public static void removeMessageConsumer(RNCWebViewMessageConsumer consumer) {
+        RNCWebViewMessageConsumerRegistry.remove(consumer);
+    }
 
     private enum MimeType {
         DEFAULT("*/*"),
@@ -202,12 +195,104 @@ public class RNCWebViewModuleImpl implements ActivityEventListener {
     }
 
     public void shouldStartLoadWithLockIdentifier(boolean shouldStart, double lockIdentifier) {
-        final AtomicReference<ShouldOverrideUrlLoadingLock.ShouldOverrideCallbackState> lockObject = shouldOverrideUrlLoadingLock.getLock(lockIdentifier);
-        if (lockObject != null) {
-            synchronized (lockObject) {
-                lockObject.set(shouldStart ? ShouldOverrideUrlLoadingLock.ShouldOverrideCallbackState.DO_NOT_OVERRIDE : ShouldOverrideUrlLoadingLock.ShouldOverrideCallbackState.SHOULD_OVERRIDE);
-                lockObject.notify();
+        RNCWebViewNavigationDecisions.resolve((long) lockIdentifier, shouldStart);
+    }
+
+    /**
+     * Caches the decision JS is about to send for `lockIdentifier` through
+     * {@link #shouldStartLoadWithLockIdentifier}, see {@link RNCWebViewNavigationDecisionCache}.
+     */
+    public void cacheNavigationDecision(double lockIdentifier, boolean shouldStart, double ttlMs, boolean byHost) {
+        RNCWebViewNavigationDecisions.Pending pending = RNCWebViewNavigationDecisions.get((long) lockIdentifier);
+        if (pending != null) {
+            pending.host.getDecisionCache().put(pending.url, shouldStart, (long) ttlMs, byHost);
+        }
+    }
+
+    public void clearNavigationDecisionCache(double reactTag) {
+        UiThreadUtil.runOnUiThread(() -> {
+            RNCWebView webView = findWebView((int) reactTag);
+            if (webView != null) {
+                webView.navigationDecisionCache.clear();
+            }
+        });
+    }
+
+    public void resolveRequest(double requestId, String result, boolean isError) {
+        UiThreadUtil.runOnUiThread(() -> RNCWebViewRpc.resolve((long) requestId, result, isError));
+    }
+
+    public void ackMessages(double queueId, double count) {
+        UiThreadUtil.runOnUiThread(() -> RNCWebViewMessageQueue.ack((int) queueId, (int) count));
+    }
+
+    public void broadcastMessage(String group, String data) {
+        UiThreadUtil.runOnUiThread(() -> RNCWebViewMessageGroups.broadcast(group, data));
+    }
+
+    public void configureSavedStates(ReadableMap config) {
+        RNCWebViewStateStore.get(mContext).configure(config);
+    }
+
+    public void removeSavedState(String id) {
+        RNCWebViewStateStore.get(mContext).remove(id);
+    }
+
+    public void getSavedStatesSize(Promise promise) {
+        RNCWebViewStateStore.get(mContext).getSize(promise);
+    }
+
+    public void getMessageQueueStats(double reactTag, Promise promise) {
+        UiThreadUtil.runOnUiThread(() -> {
+            RNCWebView webView = findWebView((int) reactTag);
+            RNCWebViewMessageQueue queue = webView == null ? null : webView.getMessageQueue();
+            promise.resolve(queue == null ? null : queue.getStats());
+        });
+    }
+
+    public void getBridgeMetrics(double reactTag, boolean reset, Promise promise) {
+        UiThreadUtil.runOnUiThread(() -> {
+            RNCWebView webView = findWebView((int) reactTag);
+            if (webView == null) {
+                promise.resolve(null);
+                return;
+            }
+            promise.resolve(webView.bridgeMetrics.toWritableMap());
+            if (reset) {
+                webView.bridgeMetrics.reset();
             }
+        });
+    }
+
+    public void getNavigationMetrics(double reactTag, boolean reset, Promise promise) {
+        UiThreadUtil.runOnUiThread(() -> {
+            RNCWebView webView = findWebView((int) reactTag);
+            if (webView == null) {
+                promise.resolve(null);
+                return;
+            }
+            promise.resolve(webView.navigationMetrics.toWritableMap());
+            if (reset) {
+                webView.navigationMetrics.reset();
+            }
+        });
+    }
+
+    /**
+     * Looks up the WebView rendered for the given react tag. Must be called on the UI thread.
+     */
+    @Nullable
+    private RNCWebView findWebView(int reactTag) {
+        UIManager uiManager = UIManagerHelper.getUIManagerForReactTag(mContext, reactTag);
+        if (uiManager == null) {
+            return null;
+        }
+        try {
+            View view = uiManager.resolveView(reactTag);
+            return view instanceof RNCWebViewWrapper ? ((RNCWebViewWrapper) view).getWebView() : null;
+        } catch (RuntimeException e) {
+            // The view is already gone.
+            return null;
         }
     }
 
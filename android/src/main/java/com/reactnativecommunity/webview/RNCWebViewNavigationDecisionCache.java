@@ -0,0 +1,166 @@
+package com.reactnativecommunity.webview;
+
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Navigation decisions JS marked as cacheable, so that `onShouldStartLoadWithRequest` is not asked
+ * again for the same URL, or host, until the decision expires. Each WebView has its own cache,
+ * holding at most {@link #MAX_ENTRIES} decisions; the least recently used one is evicted first.
+ * <p>
+ * URLs are compared without their fragment, and with a lower case scheme and host.
+ * <p>
+ * Safe to use from any thread: lookups happen in {@code shouldOverrideUrlLoading} on the UI thread
+ * while decisions arrive on the native modules thread.
+ */
+class RNCWebViewNavigationDecisionCache {
+    static final int MAX_ENTRIES = 256;
+
+    /**
+     * Milliseconds since an arbitrary point, {@link SystemClock#elapsedRealtime} outside of unit
+     * tests.
+     */
+    interface Clock {
+        long now();
+    }
+
+    private static class Decision {
+        final boolean shouldStart;
+        final long expiresAtMillis;
+
+        Decision(boolean shouldStart, long expiresAtMillis) {
+            this.shouldStart = shouldStart;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final Map<String, Decision> mDecisions = new LinkedHashMap<String, Decision>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Decision> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Clock mClock;
+
+    RNCWebViewNavigationDecisionCache() {
+        this(SystemClock::elapsedRealtime);
+    }
+
+    RNCWebViewNavigationDecisionCache(Clock clock) {
+        mClock = clock;
+    }
+
+    /**
+     * Stores the decision JS made for a navigation to `url`. Must be called before the decision is
+     * handed to the waiting navigation.
+     *
+     * @param byHost whether the decision applies to every URL of the host instead of the URL only
+     */
+    void put(String url, boolean shouldStart, long ttlMillis, boolean byHost) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        String key = byHost ? hostKey(url) : urlKey(url);
+        if (key != null) {
+            put(key, new Decision(shouldStart, mClock.now() + ttlMillis));
+        }
+    }
+
+    /**
+     * @return the cached decision for the URL or its host, {@code null} when there is none
+     */
+    synchronized @Nullable Boolean get(String url) {
+        long now = mClock.now();
+        Boolean shouldStart = lookup(urlKey(url), now);
+        return shouldStart != null ? shouldStart : lookup(hostKey(url), now);
+    }
+
+    synchronized void clear() {
+        mDecisions.clear();
+    }
+
+    private synchronized void put(String key, Decision decision) {
+        mDecisions.put(key, decision);
+    }
+
+    private @Nullable Boolean lookup(@Nullable String key, long now) {
+        if (key == null) {
+            return null;
+        }
+        Decision decision = mDecisions.get(key);
+        if (decision == null) {
+            return null;
+        }
+        if (decision.expiresAtMillis <= now) {
+            mDecisions.remove(key);
+            return null;
+        }
+        return decision.shouldStart;
+    }
+
+    /**
+     * The URL without its fragment, with a lower case scheme and authority.
+     */
+    static String urlKey(String url) {
+        int fragmentStart = url.indexOf('#');
+        String key = fragmentStart >= 0 ? url.substring(0, fragmentStart) : url;
+        int schemeEnd = schemeEnd(key);
+        if (schemeEnd < 0) {
+            return "url:" + key;
+        }
+        int authorityEnd = schemeEnd + 1;
+        if (key.startsWith("//", authorityEnd)) {
+            authorityEnd = authorityEnd(key, authorityEnd + 2);
+        }
+        return "url:" + key.substring(0, authorityEnd).toLowerCase(Locale.ROOT) + key.substring(authorityEnd);
+    }
+
+    /**
+     * The lower case host of the URL, without user info and port, {@code null} when it has none.
+     */
+    static @Nullable String hostKey(String url) {
+        int schemeEnd = schemeEnd(url);
+        if (schemeEnd < 0 || !url.startsWith("//", schemeEnd + 1)) {
+            return null;
+        }
+        int authorityStart = schemeEnd + 3;
+        String authority = url.substring(authorityStart, authorityEnd(url, authorityStart));
+        String host = authority.substring(authority.lastIndexOf('@') + 1);
+        int hostEnd = host.startsWith("[") ? host.indexOf(']') + 1 : host.indexOf(':');
+        if (hostEnd > 0) {
+            host = host.substring(0, hostEnd);
+        }
+        return host.isEmpty() ? null : "host:" + host.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the index of the colon ending the scheme, {@code -1} when the URL has no scheme
+     */
+    private static int schemeEnd(String url) {
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return i > 0 ? i : -1;
+            }
+            boolean isSchemeChar = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+              || (i > 0 && ((c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.'));
+            if (!isSchemeChar) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int authorityEnd(String url, int authorityStart) {
+        int end = authorityStart;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return end;
+    }
+}
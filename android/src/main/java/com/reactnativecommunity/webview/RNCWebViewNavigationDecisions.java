@@ -0,0 +1,172 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Navigations waiting for `onShouldStartLoadWithRequest` to decide. Each one gets its own
+ * {@link Pending} slot that the UI thread waits on with a latch, so WebViews navigating at the same
+ * time never contend on a shared monitor. With `shouldStartLoadMode` set to `async`, nothing waits:
+ * the slot is deferred right away and the URL is loaded again once JS allows it.
+ * <p>
+ * Safe to use from any thread: slots are created and waited on by the UI thread and resolved from
+ * the native modules thread.
+ */
+class RNCWebViewNavigationDecisions {
+    static final int DEFAULT_TIMEOUT_MS = 250;
+
+    /**
+     * What happens to a navigation JS did not decide on in time.
+     */
+    enum TimeoutPolicy {
+        /**
+         * Load the URL, the previous behavior.
+         */
+        ALLOW,
+        /**
+         * Block the navigation.
+         */
+        DENY,
+        /**
+         * Block the navigation for now, and load the URL once JS allows it.
+         */
+        DEFER;
+
+        static TimeoutPolicy fromString(@Nullable String value) {
+            if ("deny".equals(value)) {
+                return DENY;
+            }
+            if ("defer".equals(value)) {
+                return DEFER;
+            }
+            return ALLOW;
+        }
+    }
+
+    /**
+     * The WebView a navigation belongs to, see {@link RNCWebView#navigationDecisionHost}.
+     */
+    interface Host {
+        RNCWebViewNavigationDecisionCache getDecisionCache();
+
+        /**
+         * Called on the thread JS decided on.
+         */
+        void onDecisionReceived(long latencyNanos);
+
+        /**
+         * Ends a deferred navigation once JS decided, loading the URL if it is allowed. Called on
+         * the thread JS decided on.
+         */
+        void finishDeferred(String url, @Nullable Map<String, String> headers, boolean shouldStart);
+    }
+
+    private static final int UNDECIDED = 0;
+    private static final int START = 1;
+    private static final int BLOCK = 2;
+
+    static class Pending {
+        final long id;
+        final Host host;
+        final String url;
+        final @Nullable Map<String, String> headers;
+        final long createdAtNanos = System.nanoTime();
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+        private volatile int mState = UNDECIDED;
+        private volatile boolean mDeferred = false;
+
+        Pending(long id, Host host, String url, @Nullable Map<String, String> headers) {
+            this.id = id;
+            this.host = host;
+            this.url = url;
+            this.headers = headers;
+        }
+
+        /**
+         * Blocks until JS decides or the timeout elapses.
+         *
+         * @return whether JS decided in time
+         */
+        boolean await(long timeoutMs) throws InterruptedException {
+            return mLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        boolean shouldStart() {
+            return mState == START;
+        }
+
+        /**
+         * Keeps the slot, after a timeout or without waiting at all, so that a later decision can
+         * still load the URL. Supersedes navigations of the same WebView deferred before.
+         */
+        void defer() {
+            for (Pending pending : sPending.values()) {
+                if (pending != this && pending.host == host && pending.mDeferred) {
+                    sPending.remove(pending.id);
+                }
+            }
+            mDeferred = true;
+            if (mState != UNDECIDED) {
+                // JS decided between the timeout and this call.
+                finishDeferred();
+            }
+        }
+
+        private void resolve(boolean shouldStart) {
+            host.onDecisionReceived(System.nanoTime() - createdAtNanos);
+            mState = shouldStart ? START : BLOCK;
+            mLatch.countDown();
+            if (mDeferred) {
+                finishDeferred();
+            }
+        }
+
+        private void finishDeferred() {
+            if (sPending.remove(id) == null) {
+                return;
+            }
+            host.finishDeferred(url, headers, mState == START);
+        }
+    }
+
+    private static final AtomicLong sNextId = new AtomicLong(1);
+    private static final Map<Long, Pending> sPending = new ConcurrentHashMap<>();
+
+    static Pending create(Host host, String url, @Nullable Map<String, String> headers) {
+        long id = sNextId.getAndIncrement();
+        Pending pending = new Pending(id, host, url, headers);
+        sPending.put(id, pending);
+        return pending;
+    }
+
+    static @Nullable Pending get(long id) {
+        return sPending.get(id);
+    }
+
+    static void remove(Pending pending) {
+        sPending.remove(pending.id);
+    }
+
+    /**
+     * Drops the navigations of a WebView that is being destroyed.
+     */
+    static void removeAll(Host host) {
+        for (Pending pending : sPending.values()) {
+            if (pending.host == host) {
+                sPending.remove(pending.id);
+            }
+        }
+    }
+
+    static void resolve(long id, boolean shouldStart) {
+        Pending pending = sPending.get(id);
+        if (pending != null) {
+            pending.resolve(shouldStart);
+        }
+    }
+}
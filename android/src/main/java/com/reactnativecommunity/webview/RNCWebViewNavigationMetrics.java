@@ -0,0 +1,89 @@
+package com.reactnativecommunity.webview;
+
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Navigation decision counters of a single WebView: how navigations were decided, how long JS took
+ * to answer `onShouldStartLoadWithRequest`, and how long the UI thread was blocked waiting for it.
+ * <p>
+ * Safe to use from any thread: navigations are recorded on the UI thread while decisions arrive on
+ * the native modules thread.
+ */
+class RNCWebViewNavigationMetrics {
+    private long mSinceMillis = SystemClock.elapsedRealtime();
+    private long mDecidedByRules = 0;
+    private long mDecidedFromCache = 0;
+    private long mAskedSync = 0;
+    private long mAskedAsync = 0;
+    private long mTimeouts = 0;
+    private long mBlockedNanos = 0;
+    private long mMaxBlockedNanos = 0;
+    private final RNCWebViewLatencyHistogram mDecisionLatency = new RNCWebViewLatencyHistogram();
+
+    synchronized void onDecidedByRules() {
+        mDecidedByRules++;
+    }
+
+    synchronized void onDecidedFromCache() {
+        mDecidedFromCache++;
+    }
+
+    synchronized void onAsked(boolean async) {
+        if (async) {
+            mAskedAsync++;
+        } else {
+            mAskedSync++;
+        }
+    }
+
+    /**
+     * @param blockedNanos how long the UI thread waited for the decision
+     */
+    synchronized void onWaited(long blockedNanos, boolean timedOut) {
+        mBlockedNanos += blockedNanos;
+        mMaxBlockedNanos = Math.max(mMaxBlockedNanos, blockedNanos);
+        if (timedOut) {
+            mTimeouts++;
+        }
+    }
+
+    /**
+     * @param roundTripNanos time from asking JS to its decision reaching native code
+     */
+    synchronized void onDecisionReceived(long roundTripNanos) {
+        mDecisionLatency.record(roundTripNanos);
+    }
+
+    synchronized long getTimeouts() {
+        return mTimeouts;
+    }
+
+    synchronized void reset() {
+        mSinceMillis = SystemClock.elapsedRealtime();
+        mDecidedByRules = 0;
+        mDecidedFromCache = 0;
+        mAskedSync = 0;
+        mAskedAsync = 0;
+        mTimeouts = 0;
+        mBlockedNanos = 0;
+        mMaxBlockedNanos = 0;
+        mDecisionLatency.reset();
+    }
+
+    synchronized WritableMap toWritableMap() {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("periodMs", SystemClock.elapsedRealtime() - mSinceMillis);
+        map.putDouble("decidedByRules", mDecidedByRules);
+        map.putDouble("decidedFromCache", mDecidedFromCache);
+        map.putDouble("askedSync", mAskedSync);
+        map.putDouble("askedAsync", mAskedAsync);
+        map.putDouble("timeouts", mTimeouts);
+        map.putDouble("blockedMs", mBlockedNanos / 1e6);
+        map.putDouble("maxBlockedMs", mMaxBlockedNanos / 1e6);
+        map.putMap("decisionLatency", mDecisionLatency.toWritableMap());
+        return map;
+    }
+}
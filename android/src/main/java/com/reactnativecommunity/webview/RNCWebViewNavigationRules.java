@@ -0,0 +1,271 @@
+package com.reactnativecommunity.webview;
+
+import android.net.Uri;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Navigation rules set with the `navigationRules` prop, compiled once so that
+ * {@code shouldOverrideUrlLoading} can decide most navigations without blocking on a JS round
+ * trip.
+ * <p>
+ * A rule matches when every criterion it sets matches: the scheme is one of {@code schemes}, the
+ * host is one of {@code hosts} (either exact, or {@code *.example.com} for the domain and its
+ * subdomains), the path matches one of the {@code paths} globs ({@code *} within a segment,
+ * {@code **} across segments) and the whole URL matches the {@code pattern} regex. The first
+ * matching rule decides; URLs no rule matches, and rules with the {@link Action#ASK} action, go to
+ * JS as before.
+ * <p>
+ * {@code originWhitelist} is enforced in JS, so {@link Action#ALLOW} rules load URLs outside of it
+ * as well, see {@link #shouldOverride}.
+ * <p>
+ * Immutable, safe to use from any thread.
+ */
+class RNCWebViewNavigationRules {
+    private static final String TAG = "RNCWebViewNavigationRules";
+
+    enum Action {
+        ALLOW,
+        DENY,
+        ASK;
+
+        static @Nullable Action fromString(@Nullable String value) {
+            if ("allow".equals(value)) {
+                return ALLOW;
+            }
+            if ("deny".equals(value)) {
+                return DENY;
+            }
+            if ("ask".equals(value)) {
+                return ASK;
+            }
+            return null;
+        }
+    }
+
+    private static class Rule {
+        final Action action;
+        final @Nullable Set<String> schemes;
+        final @Nullable Set<String> hosts;
+        final @Nullable List<String> hostSuffixes;
+        final @Nullable Pattern paths;
+        final @Nullable Pattern pattern;
+
+        Rule(Action action, @Nullable Set<String> schemes, @Nullable Set<String> hosts,
+             @Nullable List<String> hostSuffixes, @Nullable Pattern paths, @Nullable Pattern pattern) {
+            this.action = action;
+            this.schemes = schemes;
+            this.hosts = hosts;
+            this.hostSuffixes = hostSuffixes;
+            this.paths = paths;
+            this.pattern = pattern;
+        }
+
+        boolean matches(String url, @Nullable String scheme, @Nullable String host, String path) {
+            if (schemes != null && (scheme == null || !schemes.contains(scheme))) {
+                return false;
+            }
+            if ((hosts != null || hostSuffixes != null) && !matchesHost(host)) {
+                return false;
+            }
+            if (paths != null && !paths.matcher(path).matches()) {
+                return false;
+            }
+            return pattern == null || pattern.matcher(url).find();
+        }
+
+        private boolean matchesHost(@Nullable String host) {
+            if (host == null) {
+                return false;
+            }
+            if (hosts != null && hosts.contains(host)) {
+                return true;
+            }
+            if (hostSuffixes != null) {
+                for (String suffix : hostSuffixes) {
+                    if (host.endsWith(suffix)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private final List<Rule> mRules;
+
+    private RNCWebViewNavigationRules(List<Rule> rules) {
+        mRules = rules;
+    }
+
+    /**
+     * Rules that cannot be compiled, e.g. because of an invalid regex or action, are skipped.
+     *
+     * @return {@code null} when no rule is left
+     */
+    static @Nullable RNCWebViewNavigationRules compile(@Nullable ReadableArray config) {
+        if (config == null) {
+            return null;
+        }
+
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < config.size(); i++) {
+            if (config.getType(i) != ReadableType.Map) {
+                continue;
+            }
+            ReadableMap rule = config.getMap(i);
+            Action action = Action.fromString(rule.hasKey("action") ? rule.getString("action") : null);
+            if (action == null) {
+                FLog.w(TAG, "Skipping navigation rule " + i + " without a valid action.");
+                continue;
+            }
+            try {
+                rules.add(compileRule(action, rule));
+            } catch (PatternSyntaxException e) {
+                FLog.e(TAG, "Skipping navigation rule " + i + " with an invalid pattern.", e);
+            }
+        }
+        return rules.isEmpty() ? null : new RNCWebViewNavigationRules(rules);
+    }
+
+    /**
+     * @return the action of the first rule matching the URL, {@code null} when none does
+     */
+    @Nullable Action decide(String url) {
+        Uri uri = Uri.parse(url);
+        String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost() == null ? null : uri.getHost().toLowerCase(Locale.ROOT);
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        return decide(url, scheme, host, path);
+    }
+
+    /**
+     * {@link #decide(String)} for a URL that is already split up. Kept package-private and separate
+     * so that the matcher can be tested on the JVM, where {@link Uri} is a stub.
+     *
+     * @param scheme the lower case scheme of {@code url}
+     * @param host the lower case host of {@code url}
+     */
+    @Nullable Action decide(String url, @Nullable String scheme, @Nullable String host, String path) {
+        for (Rule rule : mRules) {
+            if (rule.matches(url, scheme, host, path)) {
+                return rule.action;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return what {@code shouldOverrideUrlLoading} returns for {@code action}, {@code null} when JS
+     * decides. An {@code allow} rule loads the URL without asking JS, which also means without
+     * checking {@code originWhitelist}.
+     */
+    static @Nullable Boolean shouldOverride(@Nullable Action action) {
+        if (action == Action.ALLOW) {
+            return false;
+        }
+        if (action == Action.DENY) {
+            return true;
+        }
+        return null;
+    }
+
+    private static Rule compileRule(Action action, ReadableMap rule) {
+        Set<String> schemes = null;
+        List<String> schemeList = getStrings(rule, "schemes");
+        if (schemeList != null) {
+            schemes = new HashSet<>();
+            for (String scheme : schemeList) {
+                schemes.add(scheme.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        Set<String> hosts = null;
+        List<String> hostSuffixes = null;
+        List<String> hostList = getStrings(rule, "hosts");
+        if (hostList != null) {
+            hosts = new HashSet<>();
+            hostSuffixes = new ArrayList<>();
+            for (String host : hostList) {
+                host = host.toLowerCase(Locale.ROOT);
+                if (host.startsWith("*.")) {
+                    // `*.example.com` covers `example.com` as well.
+                    hostSuffixes.add(host.substring(1));
+                    hosts.add(host.substring(2));
+                } else {
+                    hosts.add(host);
+                }
+            }
+        }
+
+        Pattern paths = null;
+        List<String> pathList = getStrings(rule, "paths");
+        if (pathList != null) {
+            StringBuilder regex = new StringBuilder();
+            for (String glob : pathList) {
+                if (regex.length() > 0) {
+                    regex.append('|');
+                }
+                regex.append(globToRegex(glob));
+            }
+            paths = Pattern.compile(regex.toString());
+        }
+
+        Pattern pattern = rule.hasKey("pattern") && !rule.isNull("pattern")
+          ? Pattern.compile(rule.getString("pattern"))
+          : null;
+
+        return new Rule(action, schemes, hosts, hostSuffixes, paths, pattern);
+    }
+
+    private static @Nullable List<String> getStrings(ReadableMap rule, String key) {
+        if (!rule.hasKey(key) || rule.getType(key) != ReadableType.Array) {
+            return null;
+        }
+        ReadableArray array = rule.getArray(key);
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < array.size(); i++) {
+            if (array.getType(i) == ReadableType.String) {
+                strings.add(array.getString(i));
+            }
+        }
+        return strings;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder("(?:");
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            if (glob.charAt(i) != '*') {
+                continue;
+            }
+            if (i > literalStart) {
+                regex.append(Pattern.quote(glob.substring(literalStart, i)));
+            }
+            if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else {
+                regex.append("[^/]*");
+            }
+            literalStart = i + 1;
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return regex.append(')').toString();
+    }
+}
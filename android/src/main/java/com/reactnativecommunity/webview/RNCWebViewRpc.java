@@ -0,0 +1,211 @@
+package com.reactnativecommunity.webview;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+import androidx.webkit.JavaScriptReplyProxy;
+
+import com.facebook.common.logging.FLog;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Request/response calls from the page to React Native.
+ * <p>
+ * Pages call {@code window.ReactNativeWebView.request(data, {timeout, signal})}, which returns a
+ * Promise. The call is posted to the {@link #LISTENER_NAME} listener, gets a process-wide id, and
+ * reaches JS as a message event carrying {@code requestId}. JS answers through
+ * {@code RNCWebViewModule.resolveRequest}, and the reply is posted straight back to the frame that
+ * made the call through its {@link JavaScriptReplyProxy}.
+ * <p>
+ * Frames sent by the page are {@code r<pageId>:<timeoutMs>:<data>} to start a call and
+ * {@code c<pageId>} to cancel it. Replies are {@code <pageId>:r:<result>} or
+ * {@code <pageId>:e:<error>}. Only the short header is parsed, the payload is passed through as is.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewRpc {
+    private static final String TAG = "RNCWebViewRpc";
+
+    static final String LISTENER_NAME = "ReactNativeWebViewRpc";
+    static final int DEFAULT_TIMEOUT_MS = 10000;
+
+    static final String PAGE_SCRIPT = "(function () {\n" +
+      "  var bridge = window.ReactNativeWebView;\n" +
+      "  var rpc = window." + LISTENER_NAME + ";\n" +
+      "  if (!bridge || !rpc || bridge.request) return;\n" +
+      "  var nextId = 1;\n" +
+      "  var pending = {};\n" +
+      "  rpc.addEventListener('message', function (e) {\n" +
+      "    var reply = e.data;\n" +
+      "    var idEnd = reply.indexOf(':');\n" +
+      "    var id = reply.substring(0, idEnd);\n" +
+      "    var call = pending[id];\n" +
+      "    if (!call) return;\n" +
+      "    delete pending[id];\n" +
+      "    if (reply.charAt(idEnd + 1) === 'e') {\n" +
+      "      call.reject(new Error(reply.substring(idEnd + 3)));\n" +
+      "    } else {\n" +
+      "      call.resolve(reply.substring(idEnd + 3));\n" +
+      "    }\n" +
+      "  });\n" +
+      "  bridge.request = function (data, options) {\n" +
+      "    var id = String(nextId++);\n" +
+      "    var timeout = (options && options.timeout) || 0;\n" +
+      "    var signal = options && options.signal;\n" +
+      "    return new Promise(function (resolve, reject) {\n" +
+      "      if (signal && signal.aborted) {\n" +
+      "        reject(new Error('aborted'));\n" +
+      "        return;\n" +
+      "      }\n" +
+      "      pending[id] = { resolve: resolve, reject: reject };\n" +
+      "      if (signal) {\n" +
+      "        signal.addEventListener('abort', function () {\n" +
+      "          if (!pending[id]) return;\n" +
+      "          delete pending[id];\n" +
+      "          rpc.postMessage('c' + id);\n" +
+      "          reject(new Error('aborted'));\n" +
+      "        });\n" +
+      "      }\n" +
+      "      rpc.postMessage('r' + id + ':' + timeout + ':' + String(data));\n" +
+      "    });\n" +
+      "  };\n" +
+      "})();";
+
+    /**
+     * Runs the call deadlines. Posts to the main thread outside of unit tests.
+     */
+    interface Scheduler {
+        void postDelayed(Runnable task, long delayMs);
+
+        void cancel(Runnable task);
+    }
+
+    static Scheduler sScheduler = new Scheduler() {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            mHandler.postDelayed(task, delayMs);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            mHandler.removeCallbacks(task);
+        }
+    };
+
+    private static final Map<Long, Call> sPendingCalls = new HashMap<>();
+    private static long sNextCallId = 1;
+
+    private static class Call implements Runnable {
+        final long id;
+        final Object owner;
+        final JavaScriptReplyProxy replyProxy;
+        final String pageCallId;
+
+        Call(long id, Object owner, JavaScriptReplyProxy replyProxy, String pageCallId) {
+            this.id = id;
+            this.owner = owner;
+            this.replyProxy = replyProxy;
+            this.pageCallId = pageCallId;
+        }
+
+        /**
+         * Deadline reached before JS answered.
+         */
+        @Override
+        public void run() {
+            sPendingCalls.remove(id);
+            reply(this, true, "timeout");
+        }
+    }
+
+    static void onFrame(RNCWebView webView, @Nullable String frame, String sourceUrl, boolean isMainFrame, JavaScriptReplyProxy replyProxy) {
+        if (frame == null || frame.isEmpty()) {
+            return;
+        }
+
+        char kind = frame.charAt(0);
+        if (kind == 'c') {
+            cancel(replyProxy, frame.substring(1));
+            return;
+        }
+
+        int idEnd = frame.indexOf(':', 1);
+        int timeoutEnd = idEnd < 0 ? -1 : frame.indexOf(':', idEnd + 1);
+        if (kind != 'r' || timeoutEnd < 0) {
+            FLog.w(TAG, "Ignoring malformed request frame.");
+            return;
+        }
+
+        int timeoutMs;
+        try {
+            timeoutMs = Integer.parseInt(frame.substring(idEnd + 1, timeoutEnd));
+        } catch (NumberFormatException e) {
+            timeoutMs = 0;
+        }
+
+        long callId = start(webView, replyProxy, frame.substring(1, idEnd), timeoutMs);
+        webView.dispatchRequest(callId, frame.substring(timeoutEnd + 1), sourceUrl, isMainFrame);
+    }
+
+    /**
+     * Registers a call and starts its deadline, {@link #DEFAULT_TIMEOUT_MS} when
+     * {@code timeoutMs} is not positive.
+     *
+     * @return the process-wide id JS answers with
+     */
+    static long start(Object owner, JavaScriptReplyProxy replyProxy, String pageCallId, int timeoutMs) {
+        Call call = new Call(sNextCallId++, owner, replyProxy, pageCallId);
+        sPendingCalls.put(call.id, call);
+        sScheduler.postDelayed(call, timeoutMs > 0 ? timeoutMs : DEFAULT_TIMEOUT_MS);
+        return call.id;
+    }
+
+    static void resolve(long callId, @Nullable String result, boolean isError) {
+        Call call = sPendingCalls.remove(callId);
+        if (call == null) {
+            // Timed out, cancelled by the page, or the WebView is gone.
+            return;
+        }
+        sScheduler.cancel(call);
+        reply(call, isError, result);
+    }
+
+    /**
+     * Drops the calls made from {@code owner}, a WebView that is being destroyed.
+     */
+    static void cancelAll(Object owner) {
+        Iterator<Call> calls = sPendingCalls.values().iterator();
+        while (calls.hasNext()) {
+            Call call = calls.next();
+            if (call.owner == owner) {
+                sScheduler.cancel(call);
+                calls.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops a call the page aborted. No reply is sent, the page has already rejected it.
+     */
+    static void cancel(JavaScriptReplyProxy replyProxy, String pageCallId) {
+        Iterator<Call> calls = sPendingCalls.values().iterator();
+        while (calls.hasNext()) {
+            Call call = calls.next();
+            if (call.replyProxy == replyProxy && call.pageCallId.equals(pageCallId)) {
+                sScheduler.cancel(call);
+                calls.remove();
+                return;
+            }
+        }
+    }
+
+    private static void reply(Call call, boolean isError, @Nullable String payload) {
+        call.replyProxy.postMessage(call.pageCallId + (isError ? ":e:" : ":r:") + (payload == null ? "" : payload));
+    }
+}
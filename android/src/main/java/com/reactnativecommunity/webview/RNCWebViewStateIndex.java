@@ -0,0 +1,192 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Size and recency order of the files of {@link RNCWebViewStateStore}, least recently used first,
+ * and the format the order is written in.
+ * <p>
+ * Not thread safe, the store only uses it on its background thread.
+ */
+class RNCWebViewStateIndex {
+    private static final int VERSION = 1;
+
+    private final LinkedHashMap<String, Long> mSizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long mBytes = 0;
+    /**
+     * Whether the order changed since it was last written.
+     */
+    private boolean mDirty = false;
+
+    /**
+     * Rebuilds the index from the state files on disk and the order last written by
+     * {@link #encode}. Files the written order does not know, e.g. migrated legacy states or files
+     * written before a crash, are older than the ones it does.
+     *
+     * @param files the size of each file by name, least recently modified first
+     */
+    void load(Map<String, Long> files, List<String> order) {
+        Set<String> ordered = new HashSet<>(order);
+        for (Map.Entry<String, Long> file : files.entrySet()) {
+            if (!ordered.contains(file.getKey())) {
+                add(file.getKey(), file.getValue());
+                mDirty = true;
+            }
+        }
+        for (String name : order) {
+            Long size = files.get(name);
+            if (size != null) {
+                add(name, size);
+            } else {
+                mDirty = true;
+            }
+        }
+    }
+
+    /**
+     * Records a saved state as the most recently used.
+     */
+    void put(String name, long size) {
+        Long previous = mSizes.put(name, size);
+        mBytes += size - (previous == null ? 0 : previous);
+        mDirty = true;
+    }
+
+    /**
+     * Records a restored state as the most recently used, with {@code size} bytes when the index
+     * does not know it yet.
+     *
+     * @return whether the order changed
+     */
+    boolean markUsed(String name, long size) {
+        if (name.equals(mostRecentlyUsed())) {
+            return false;
+        }
+        // get() moves a known state to the end.
+        if (mSizes.get(name) == null) {
+            add(name, size);
+        }
+        mDirty = true;
+        return true;
+    }
+
+    /**
+     * @return whether the index knew the state
+     */
+    boolean remove(String name) {
+        Long size = mSizes.remove(name);
+        if (size == null) {
+            return false;
+        }
+        mBytes -= size;
+        mDirty = true;
+        return true;
+    }
+
+    /**
+     * Forgets the least recently used states until at most {@code maxEntries} states and
+     * {@code maxBytes} bytes are left.
+     *
+     * @return the names of the forgotten states, whose files must be deleted
+     */
+    List<String> evict(int maxEntries, long maxBytes) {
+        List<String> evicted = Collections.emptyList();
+        Iterator<Map.Entry<String, Long>> iterator = mSizes.entrySet().iterator();
+        while ((mSizes.size() > maxEntries || mBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            mBytes -= eldest.getValue();
+            if (evicted.isEmpty()) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(eldest.getKey());
+        }
+        mDirty |= !evicted.isEmpty();
+        return evicted;
+    }
+
+    int size() {
+        return mSizes.size();
+    }
+
+    long bytes() {
+        return mBytes;
+    }
+
+    boolean isDirty() {
+        return mDirty;
+    }
+
+    /**
+     * The names of the states, least recently used first, in the format {@link #decode} reads.
+     * The index is considered written from here on.
+     */
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(VERSION);
+            output.writeInt(mSizes.size());
+            for (String name : mSizes.keySet()) {
+                output.writeUTF(name);
+            }
+            output.flush();
+        } catch (IOException e) {
+            // Not thrown by in-memory streams.
+            throw new IllegalStateException(e);
+        }
+        mDirty = false;
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Marks the index as not written, e.g. when writing what {@link #encode} returned failed.
+     */
+    void markDirty() {
+        mDirty = true;
+    }
+
+    /**
+     * @return the names written by {@link #encode}, none when they were written by another version
+     * @throws IOException when the bytes are truncated
+     */
+    static List<String> decode(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (input.readInt() != VERSION) {
+            return Collections.emptyList();
+        }
+        int count = input.readInt();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add(input.readUTF());
+        }
+        return names;
+    }
+
+    private void add(String name, long size) {
+        mSizes.put(name, size);
+        mBytes += size;
+    }
+
+    private @Nullable String mostRecentlyUsed() {
+        String last = null;
+        for (String name : mSizes.keySet()) {
+            last = name;
+        }
+        return last;
+    }
+}
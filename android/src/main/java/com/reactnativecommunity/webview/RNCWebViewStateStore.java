@@ -0,0 +1,429 @@
+package com.reactnativecommunity.webview;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.os.Parcel;
+import android.util.AtomicFile;
+import android.util.Base64;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * History of WebViews with a `source.id`, saved with {@code WebView.saveState} so that the WebView
+ * can be restored when it is rendered again with the same id.
+ * <p>
+ * Each id has its own file holding the raw marshalled {@link Bundle}, under the no backup files
+ * directory, so saving one WebView never rewrites the state of the others. Files are read and
+ * written on a single background thread, in order: writes of the same id are coalesced, and a read
+ * sees every save made before it. States saved by previous versions in the `MyPrefs`
+ * SharedPreferences are moved to their files when the index is first loaded.
+ * <p>
+ * The store keeps at most {@link #DEFAULT_MAX_ENTRIES} states and {@link #DEFAULT_MAX_BYTES} bytes
+ * unless configured otherwise, and evicts the least recently saved or restored states first. The
+ * recency order is kept in an index file next to the states; files missing from it, e.g. after a
+ * crash, are added as the least recently used.
+ * <p>
+ * {@link #prefetch}, {@link #restore} and {@link #save} must be called on the UI thread, which
+ * never waits for the disk.
+ */
+class RNCWebViewStateStore {
+    private static final String TAG = "RNCWebViewStateStore";
+    private static final String DIRECTORY = "rncwebview_state";
+    private static final String FILE_SUFFIX = ".state";
+    private static final String LEGACY_PREFERENCES = "MyPrefs";
+    private static final String INDEX_FILE = "index";
+    static final int DEFAULT_MAX_ENTRIES = 50;
+    static final long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_PREFETCHED = 4;
+
+    interface RestoreCallback {
+        /**
+         * Called on the UI thread.
+         *
+         * @param state the saved state, {@code null} when there is none or it cannot be read
+         */
+        void onRestored(@Nullable Bundle state);
+    }
+
+    interface LegacyDecoder {
+        /**
+         * @return the marshalled state held by a legacy entry, {@code null} when it is not readable
+         */
+        @Nullable
+        byte[] decode(String id, String value);
+    }
+
+    private static @Nullable RNCWebViewStateStore sInstance;
+
+    private final Context mContext;
+    private final File mDirectory;
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    /**
+     * Saved states not written to their file yet, by id.
+     */
+    private final Map<String, byte[]> mPendingWrites = new ConcurrentHashMap<>();
+    /**
+     * Reads started by {@link #prefetch}, by id. Bounded, so ids that are never restored, e.g.
+     * because the source changed before it was loaded, do not keep their bytes around.
+     */
+    private final Map<String, Future<byte[]>> mPrefetched = Collections.synchronizedMap(
+      new LinkedHashMap<String, Future<byte[]>>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Future<byte[]>> eldest) {
+              return size() > MAX_PREFETCHED;
+          }
+      });
+    private volatile int mMaxEntries = DEFAULT_MAX_ENTRIES;
+    private volatile long mMaxBytes = DEFAULT_MAX_BYTES;
+
+    /**
+     * Only used on the background thread, loaded by the first operation that needs it.
+     */
+    private final RNCWebViewStateIndex mIndex = new RNCWebViewStateIndex();
+    private boolean mIndexLoaded = false;
+
+    static synchronized RNCWebViewStateStore get(Context context) {
+        if (sInstance == null) {
+            sInstance = new RNCWebViewStateStore(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private RNCWebViewStateStore(Context context) {
+        mContext = context;
+        mDirectory = new File(ContextCompat.getNoBackupFilesDir(context), DIRECTORY);
+    }
+
+    /**
+     * Starts reading the state of `id`, so that it is ready by the time {@link #restore} needs it.
+     */
+    void prefetch(String id) {
+        if (!mPendingWrites.containsKey(id) && !mPrefetched.containsKey(id)) {
+            mPrefetched.put(id, mExecutor.submit(() -> read(id)));
+        }
+    }
+
+    /**
+     * Reads the state of `id` in the background, using the read started by {@link #prefetch} if
+     * any, and hands it to `callback` on the UI thread.
+     */
+    void restore(String id, RestoreCallback callback) {
+        byte[] pending = mPendingWrites.get(id);
+        Future<byte[]> prefetched = mPrefetched.remove(id);
+        mExecutor.execute(() -> {
+            byte[] bytes = pending;
+            if (bytes == null) {
+                bytes = prefetched != null ? getPrefetched(id, prefetched) : read(id);
+            }
+            Bundle state = bytes == null ? null : unmarshall(id, bytes);
+            UiThreadUtil.runOnUiThread(() -> callback.onRestored(state));
+        });
+    }
+
+    /**
+     * Prefetches run on the same executor and were submitted earlier, so this never waits.
+     */
+    @Nullable
+    private byte[] getPrefetched(String id, Future<byte[]> prefetched) {
+        try {
+            return prefetched.get();
+        } catch (ExecutionException | InterruptedException e) {
+            FLog.e(TAG, "Failed to read the state of " + id, e);
+            return null;
+        }
+    }
+
+    void save(String id, Bundle bundle) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            bundle.writeToParcel(parcel, 0);
+            mPendingWrites.put(id, parcel.marshall());
+        } finally {
+            parcel.recycle();
+        }
+        mPrefetched.remove(id);
+        mExecutor.execute(() -> {
+            byte[] bytes = mPendingWrites.remove(id);
+            if (bytes != null) {
+                write(id, bytes);
+            }
+        });
+    }
+
+    /**
+     * Sets the limits of the store, `maxEntries` and `maxBytes`, and evicts states right away if
+     * needed. Keys that are not set keep their value.
+     */
+    void configure(ReadableMap config) {
+        if (config.hasKey("maxEntries")) {
+            mMaxEntries = Math.max(0, config.getInt("maxEntries"));
+        }
+        if (config.hasKey("maxBytes")) {
+            mMaxBytes = Math.max(0, (long) config.getDouble("maxBytes"));
+        }
+        mExecutor.execute(() -> {
+            loadIndex();
+            evict();
+            persistIndex();
+        });
+    }
+
+    /**
+     * Deletes the saved state of `id`, if any.
+     */
+    void remove(String id) {
+        mPendingWrites.remove(id);
+        mPrefetched.remove(id);
+        mExecutor.execute(() -> {
+            String name = fileNameOf(id);
+            loadIndex();
+            if (mIndex.remove(name)) {
+                persistIndex();
+            }
+            fileOf(name).delete();
+            // Only there if migrating it failed, it must not come back either way.
+            mContext.getSharedPreferences(LEGACY_PREFERENCES, Context.MODE_PRIVATE).edit().remove(id).apply();
+        });
+    }
+
+    /**
+     * Resolves `{entries, bytes, maxEntries, maxBytes}`: the number of saved states, their total
+     * size, and the limits of the store.
+     */
+    void getSize(Promise promise) {
+        mExecutor.execute(() -> {
+            loadIndex();
+            WritableMap size = Arguments.createMap();
+            size.putDouble("entries", mIndex.size());
+            size.putDouble("bytes", mIndex.bytes());
+            size.putDouble("maxEntries", mMaxEntries);
+            size.putDouble("maxBytes", mMaxBytes);
+            promise.resolve(size);
+        });
+    }
+
+    @Nullable
+    private byte[] read(String id) {
+        String name = fileNameOf(id);
+        AtomicFile file = fileOf(name);
+        // Also moves the legacy states to their files, the first time.
+        loadIndex();
+        try {
+            byte[] bytes = file.readFully();
+            if (mIndex.markUsed(name, bytes.length)) {
+                persistIndex();
+            }
+            return bytes;
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            FLog.e(TAG, "Failed to read the state of " + id, e);
+            return null;
+        }
+    }
+
+    private void write(String id, byte[] bytes) {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            FLog.e(TAG, "Failed to create " + mDirectory);
+            return;
+        }
+        String name = fileNameOf(id);
+        if (!writeFile(fileOf(name), bytes)) {
+            FLog.e(TAG, "Failed to write the state of " + id);
+            return;
+        }
+        loadIndex();
+        mIndex.put(name, bytes.length);
+        evict();
+        persistIndex();
+    }
+
+    /**
+     * Deletes the least recently used states until the store is within its limits.
+     */
+    private void evict() {
+        for (String name : mIndex.evict(mMaxEntries, mMaxBytes)) {
+            fileOf(name).delete();
+        }
+    }
+
+    private void loadIndex() {
+        if (mIndexLoaded) {
+            return;
+        }
+        mIndexLoaded = true;
+        migrateLegacyStates();
+
+        File[] files = mDirectory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length == 0) {
+            return;
+        }
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            sizes.put(file.getName(), file.length());
+        }
+
+        List<String> order = Collections.emptyList();
+        try {
+            order = RNCWebViewStateIndex.decode(new AtomicFile(new File(mDirectory, INDEX_FILE)).readFully());
+        } catch (FileNotFoundException e) {
+            // First run with an index, every file is added as unindexed.
+        } catch (IOException e) {
+            FLog.w(TAG, "Rebuilding the unreadable state index", e);
+        }
+        mIndex.load(sizes, order);
+        evict();
+        persistIndex();
+    }
+
+    /**
+     * Writes the index, if it changed since it was last written.
+     */
+    private void persistIndex() {
+        if (!mIndex.isDirty() || (!mDirectory.isDirectory() && !mDirectory.mkdirs())) {
+            return;
+        }
+        if (!writeFile(new AtomicFile(new File(mDirectory, INDEX_FILE)), mIndex.encode())) {
+            mIndex.markDirty();
+            FLog.e(TAG, "Failed to write the state index");
+        }
+    }
+
+    private static boolean writeFile(AtomicFile file, byte[] bytes) {
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            stream.write(bytes);
+            file.finishWrite(stream);
+            return true;
+        } catch (IOException e) {
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Moves the states saved as Base64 in the legacy SharedPreferences to their own files, so that
+     * they count against the limits of the store and can be evicted. Entries that do not hold a
+     * readable state are left alone, the preferences file may be shared with the app.
+     */
+    private void migrateLegacyStates() {
+        SharedPreferences preferences = mContext.getSharedPreferences(LEGACY_PREFERENCES, Context.MODE_PRIVATE);
+        Map<String, ?> entries = preferences.getAll();
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            FLog.e(TAG, "Failed to create " + mDirectory);
+            return;
+        }
+        SharedPreferences.Editor editor = preferences.edit();
+        boolean migrated = false;
+        for (Map.Entry<String, byte[]> entry : readableLegacyStates(entries, this::decodeLegacyState).entrySet()) {
+            if (writeFile(fileOf(fileNameOf(entry.getKey())), entry.getValue())) {
+                editor.remove(entry.getKey());
+                migrated = true;
+            } else {
+                FLog.e(TAG, "Failed to migrate the legacy state of " + entry.getKey());
+            }
+        }
+        if (migrated) {
+            editor.apply();
+        }
+    }
+
+    /**
+     * The legacy entries holding a readable state, decoded, by id.
+     */
+    static Map<String, byte[]> readableLegacyStates(Map<String, ?> entries, LegacyDecoder decoder) {
+        Map<String, byte[]> states = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            if (!(entry.getValue() instanceof String)) {
+                continue;
+            }
+            byte[] bytes = decoder.decode(entry.getKey(), (String) entry.getValue());
+            if (bytes != null) {
+                states.put(entry.getKey(), bytes);
+            }
+        }
+        return states;
+    }
+
+    @Nullable
+    private byte[] decodeLegacyState(String id, String value) {
+        byte[] bytes;
+        try {
+            bytes = Base64.decode(value, Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return unmarshall(id, bytes) == null ? null : bytes;
+    }
+
+    @Nullable
+    private Bundle unmarshall(String id, byte[] bytes) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.unmarshall(bytes, 0, bytes.length);
+            parcel.setDataPosition(0);
+            return Bundle.CREATOR.createFromParcel(parcel);
+        } catch (RuntimeException e) {
+            // States saved by another OS version may not be readable anymore.
+            FLog.w(TAG, "Failed to restore the state of " + id, e);
+            return null;
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private AtomicFile fileOf(String name) {
+        return new AtomicFile(new File(mDirectory, name));
+    }
+
+    /**
+     * Ids are hashed, so that any string makes a valid file name.
+     */
+    static String fileNameOf(String id) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(id.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2 + FILE_SUFFIX.length());
+            for (byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+            return name.append(FILE_SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available on Android.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.reactnativecommunity.webview;
+
+import androidx.annotation.Nullable;
+import androidx.webkit.ScriptHandler;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+
+import com.facebook.common.logging.FLog;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Key-value store of a single WebView. Pages read it synchronously with
+ * {@code window.ReactNativeWebViewStore.get(key)}, so small values like the locale or feature flags
+ * are available during the first render without a message round trip.
+ * <p>
+ * The values are injected with a document-start script restricted to the origins set with
+ * {@link #setOrigins}, which Chromium enforces for every frame, so other pages and third-party
+ * iframes never see them. Nothing is injected until origins are set. Each document keeps the
+ * values it started with, changes apply from the next document.
+ * <p>
+ * WebViews without {@code DOCUMENT_START_SCRIPT} support get the store in the main frame only,
+ * evaluated when a page from one of the origins starts loading. Scripts of the page that run
+ * before that do not see it.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+class RNCWebViewValueStore {
+    private static final String TAG = "RNCWebViewValueStore";
+    static final String OBJECT_NAME = "ReactNativeWebViewStore";
+
+    private final RNCWebView mWebView;
+    private String mValuesJson = "{}";
+    private Set<String> mOrigins = new HashSet<>();
+    private @Nullable ScriptHandler mScript;
+    /**
+     * Whether the store is evaluated in {@link #onPageStarted}, because document-start scripts are
+     * not supported.
+     */
+    private boolean mInjectOnPageStarted;
+
+    RNCWebViewValueStore(RNCWebView webView) {
+        mWebView = webView;
+    }
+
+    /**
+     * @param valuesJson a JSON object of string values, {@code null} clears the store
+     */
+    void setValues(@Nullable String valuesJson) {
+        String next = "{}";
+        if (valuesJson != null) {
+            try {
+                next = new JSONObject(valuesJson).toString();
+            } catch (JSONException e) {
+                FLog.e(TAG, "Ignoring nativeStoreValues, they are not a JSON object.", e);
+            }
+        }
+        if (next.equals(mValuesJson)) {
+            return;
+        }
+        mValuesJson = next;
+        update();
+    }
+
+    /**
+     * @param origins rules in the format of {@code WebViewCompat.addDocumentStartJavaScript},
+     *                {@code null} or an empty list disables the store
+     */
+    void setOrigins(@Nullable List<String> origins) {
+        Set<String> next = origins == null ? new HashSet<>() : new HashSet<>(origins);
+        if (next.equals(mOrigins)) {
+            return;
+        }
+        mOrigins = next;
+        update();
+    }
+
+    /**
+     * Replaces the injected script, starting with the next document.
+     */
+    private void update() {
+        if (mScript != null) {
+            mScript.remove();
+            mScript = null;
+        }
+        mInjectOnPageStarted = false;
+        if (mOrigins.isEmpty() || "{}".equals(mValuesJson)) {
+            return;
+        }
+        if (!WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
+            FLog.w(TAG, "Document-start scripts are not supported by this WebView, the native store is only injected into the main frame once pages start loading.");
+            mInjectOnPageStarted = true;
+            return;
+        }
+        try {
+            mScript = WebViewCompat.addDocumentStartJavaScript(mWebView, pageScript(), mOrigins);
+        } catch (IllegalArgumentException e) {
+            FLog.e(TAG, "Invalid nativeStoreOrigins, the native store is not available.", e);
+        }
+    }
+
+    /**
+     * Evaluates the store in a new main frame document when document-start scripts are not
+     * supported.
+     */
+    void onPageStarted(@Nullable String url) {
+        if (mInjectOnPageStarted && RNCWebView.matchesOriginRules(url, mOrigins)) {
+            mWebView.evaluateJavascript(pageScript(), null);
+        }
+    }
+
+    private String pageScript() {
+        // U+2028 and U+2029 are valid in JSON but end a line in older JS engines.
+        String values = mValuesJson.replace("\u2028", "\\u2028").replace("\u2029", "\\u2029");
+        return "(function () {\n" +
+          "  if (window." + OBJECT_NAME + ") return;\n" +
+          "  var values = " + values + ";\n" +
+          "  var store = { get: function (key) {\n" +
+          "    return Object.prototype.hasOwnProperty.call(values, key) ? values[key] : null;\n" +
+          "  } };\n" +
+          "  Object.defineProperty(window, '" + OBJECT_NAME + "', { value: Object.freeze(store) });\n" +
+          "})();";
+    }
+}
@@ -5,19 +5,26 @@ import com.facebook.react.uimanager.events.Event
 import com.facebook.react.uimanager.events.RCTEventEmitter
 
 /**
- * Event emitted when there is an error in loading.
+ * Event emitted when the page posts a message.
+ *
+ * Under the new architecture the event is created with the surface id of the view and its payload is
+ * handed to Fabric through [getEventData], which passes it to the view's C++ event emitter over JSI.
  */
-class TopMessageEvent(viewId: Int, private val mEventData: WritableMap) : Event<TopMessageEvent>(viewId) {
+class TopMessageEvent(surfaceId: Int, viewId: Int, private val mEventData: WritableMap) : Event<TopMessageEvent>(surfaceId, viewId) {
   companion object {
     const val EVENT_NAME = "topMessage"
   }
 
+  constructor(viewId: Int, eventData: WritableMap) : this(-1, viewId, eventData)
+
   override fun getEventName(): String = EVENT_NAME
 
   override fun canCoalesce(): Boolean = false
 
   override fun getCoalescingKey(): Short = 0
 
+  override fun getEventData(): WritableMap = mEventData
+
   override fun dispatch(rctEventEmitter: RCTEventEmitter) {
     rctEventEmitter.receiveEvent(viewTag, EVENT_NAME, mEventData)
   }
@@ -23,13 +23,11 @@ import com.reactnativecommunity.webview.events.TopLoadingStartEvent;
 import com.reactnativecommunity.webview.events.TopMessageEvent;
 import com.reactnativecommunity.webview.events.TopOpenWindowEvent;
 import com.reactnativecommunity.webview.events.TopRenderProcessGoneEvent;
+import com.reactnativecommunity.webview.events.TopShouldStartLoadTimeoutEvent;
 import com.reactnativecommunity.webview.events.TopShouldStartLoadWithRequestEvent;
 
 import android.webkit.WebChromeClient;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.util.Map;
 
 @ReactModule(name = RNCWebViewManagerImpl.NAME)
@@ -235,6 +233,54 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper>
         mRNCWebViewManagerImpl.setMessagingEnabled(view, value);
     }
 
+    @Override
+    @ReactProp(name = "parseJsonMessages")
+    public void setParseJsonMessages(RNCWebViewWrapper view, boolean value) {
+        mRNCWebViewManagerImpl.setParseJsonMessages(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "leanMessageEvents")
+    public void setLeanMessageEvents(RNCWebViewWrapper view, boolean value) {
+        mRNCWebViewManagerImpl.setLeanMessageEvents(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "messageBatching")
+    public void setMessageBatching(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageBatching(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "messageChunking")
+    public void setMessageChunking(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageChunking(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "messageGroups")
+    public void setMessageGroups(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setMessageGroups(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "messageOriginAllowlist")
+    public void setMessageOriginAllowlist(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setMessageOriginAllowlist(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "messageQueue")
+    public void setMessageQueue(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageQueue(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "messageReplayBuffer")
+    public void setMessageReplayBuffer(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageReplayBuffer(view, value);
+    }
+
     @Override
     @ReactProp(name = "messagingModuleName")
     public void setMessagingModuleName(RNCWebViewWrapper view, @Nullable String value) {
@@ -253,6 +299,24 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper>
         mRNCWebViewManagerImpl.setMixedContentMode(view, value);
     }
 
+    @Override
+    @ReactProp(name = "nativeStoreOrigins")
+    public void setNativeStoreOrigins(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setNativeStoreOrigins(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "nativeStoreValues")
+    public void setNativeStoreValues(RNCWebViewWrapper view, @Nullable String value) {
+        mRNCWebViewManagerImpl.setNativeStoreValues(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "navigationRules")
+    public void setNavigationRules(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setNavigationRules(view, value);
+    }
+
     @Override
     @ReactProp(name = "nestedScrollEnabled")
     public void setNestedScrollEnabled(RNCWebViewWrapper view, boolean value) {
@@ -295,6 +359,30 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper>
         mRNCWebViewManagerImpl.setSetSupportMultipleWindows(view, value);
     }
 
+    @Override
+    @ReactProp(name = "shouldStartLoadMode")
+    public void setShouldStartLoadMode(RNCWebViewWrapper view, @Nullable String value) {
+        mRNCWebViewManagerImpl.setShouldStartLoadMode(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "shouldStartLoadTimeout", defaultInt = RNCWebViewNavigationDecisions.DEFAULT_TIMEOUT_MS)
+    public void setShouldStartLoadTimeout(RNCWebViewWrapper view, int value) {
+        mRNCWebViewManagerImpl.setShouldStartLoadTimeout(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "shouldStartLoadTimeoutPolicy")
+    public void setShouldStartLoadTimeoutPolicy(RNCWebViewWrapper view, @Nullable String value) {
+        mRNCWebViewManagerImpl.setShouldStartLoadTimeoutPolicy(view, value);
+    }
+
+    @Override
+    @ReactProp(name = "hasOnShouldStartLoadTimeout")
+    public void setHasOnShouldStartLoadTimeout(RNCWebViewWrapper view, boolean hasEvent) {
+        mRNCWebViewManagerImpl.setHasOnShouldStartLoadTimeout(view, hasEvent);
+    }
+
     @Override
     @ReactProp(name = "showsHorizontalScrollIndicator")
     public void setShowsHorizontalScrollIndicator(RNCWebViewWrapper view, boolean value) {
@@ -458,25 +546,7 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper>
 
   @Override
   public void postMessage(RNCWebViewWrapper view, String data) {
-      try {
-        JSONObject eventInitDict = new JSONObject();
-        eventInitDict.put("data", data);
-        view.getWebView().evaluateJavascriptWithFallback(
-          "(function () {" +
-            "var event;" +
-            "var data = " + eventInitDict.toString() + ";" +
-            "try {" +
-            "event = new MessageEvent('message', data);" +
-            "} catch (e) {" +
-            "event = document.createEvent('MessageEvent');" +
-            "event.initMessageEvent('message', true, true, data.data, data.origin, data.lastEventId, data.source);" +
-            "}" +
-            "document.dispatchEvent(event);" +
-            "})();"
-        );
-      } catch (JSONException e) {
-        throw  new RuntimeException(e);
-      }
+      view.getWebView().postMessage(data);
   }
 
   @Override
@@ -499,6 +569,21 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper>
       view.getWebView().clearHistory();
   }
 
+  @Override
+  public void openMessageChannel(RNCWebViewWrapper view, String name) {
+      view.getWebView().openMessageChannel(name);
+  }
+
+  @Override
+  public void postChannelMessage(RNCWebViewWrapper view, String name, String data) {
+      view.getWebView().postChannelMessage(name, data);
+  }
+
+  @Override
+  public void closeMessageChannel(RNCWebViewWrapper view, String name) {
+      view.getWebView().closeMessageChannel(name);
+  }
+
   @Override
     protected void addEventEmitters(@NonNull ThemedReactContext reactContext, RNCWebViewWrapper view) {
         // Do not register default touch emitter and let WebView implementation handle touches
@@ -520,6 +605,7 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper>
 
         export.put(TopLoadingProgressEvent.EVENT_NAME, MapBuilder.of("registrationName", "onLoadingProgress"));
         export.put(TopShouldStartLoadWithRequestEvent.EVENT_NAME, MapBuilder.of("registrationName", "onShouldStartLoadWithRequest"));
+        export.put(TopShouldStartLoadTimeoutEvent.EVENT_NAME, MapBuilder.of("registrationName", "onShouldStartLoadTimeout"));
         export.put(ScrollEventType.getJSEventName(ScrollEventType.SCROLL), MapBuilder.of("registrationName", "onScroll"));
         export.put(TopHttpErrorEvent.EVENT_NAME, MapBuilder.of("registrationName", "onHttpError"));
         export.put(TopRenderProcessGoneEvent.EVENT_NAME, MapBuilder.of("registrationName", "onRenderProcessGone"));
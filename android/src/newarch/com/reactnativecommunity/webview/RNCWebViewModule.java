@@ -8,6 +8,7 @@ import androidx.annotation.NonNull;
 
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.module.annotations.ReactModule;
 
 @ReactModule(name = RNCWebViewModuleImpl.NAME)
@@ -29,6 +30,61 @@ public class RNCWebViewModule extends NativeRNCWebViewModuleSpec {
         mRNCWebViewModuleImpl.shouldStartLoadWithLockIdentifier(shouldStart, lockIdentifier);
     }
 
+    @Override
+    public void cacheNavigationDecision(double lockIdentifier, boolean shouldStart, double ttlMs, boolean byHost) {
+        mRNCWebViewModuleImpl.cacheNavigationDecision(lockIdentifier, shouldStart, ttlMs, byHost);
+    }
+
+    @Override
+    public void clearNavigationDecisionCache(double reactTag) {
+        mRNCWebViewModuleImpl.clearNavigationDecisionCache(reactTag);
+    }
+
+    @Override
+    public void resolveRequest(double requestId, String result, boolean isError) {
+        mRNCWebViewModuleImpl.resolveRequest(requestId, result, isError);
+    }
+
+    @Override
+    public void ackMessages(double queueId, double count) {
+        mRNCWebViewModuleImpl.ackMessages(queueId, count);
+    }
+
+    @Override
+    public void broadcastMessage(String group, String data) {
+        mRNCWebViewModuleImpl.broadcastMessage(group, data);
+    }
+
+    @Override
+    public void configureSavedStates(ReadableMap config) {
+        mRNCWebViewModuleImpl.configureSavedStates(config);
+    }
+
+    @Override
+    public void removeSavedState(String id) {
+        mRNCWebViewModuleImpl.removeSavedState(id);
+    }
+
+    @Override
+    public void getSavedStatesSize(Promise promise) {
+        mRNCWebViewModuleImpl.getSavedStatesSize(promise);
+    }
+
+    @Override
+    public void getMessageQueueStats(double reactTag, Promise promise) {
+        mRNCWebViewModuleImpl.getMessageQueueStats(reactTag, promise);
+    }
+
+    @Override
+    public void getBridgeMetrics(double reactTag, boolean reset, Promise promise) {
+        mRNCWebViewModuleImpl.getBridgeMetrics(reactTag, reset, promise);
+    }
+
+    @Override
+    public void getNavigationMetrics(double reactTag, boolean reset, Promise promise) {
+        mRNCWebViewModuleImpl.getNavigationMetrics(reactTag, reset, promise);
+    }
+
     public void startPhotoPickerIntent(ValueCallback<Uri> filePathCallback, String acceptType) {
         mRNCWebViewModuleImpl.startPhotoPickerIntent(acceptType, filePathCallback);
     }
@@ -19,6 +19,7 @@ import com.reactnativecommunity.webview.events.TopLoadingStartEvent;
 import com.reactnativecommunity.webview.events.TopMessageEvent;
 import com.reactnativecommunity.webview.events.TopOpenWindowEvent;
 import com.reactnativecommunity.webview.events.TopRenderProcessGoneEvent;
+import com.reactnativecommunity.webview.events.TopShouldStartLoadTimeoutEvent;
 import com.reactnativecommunity.webview.events.TopShouldStartLoadWithRequestEvent;
 
 import java.util.Map;
@@ -188,6 +189,46 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper> {
         mRNCWebViewManagerImpl.setMenuCustomItems(view, items);
     }
 
+    @ReactProp(name = "parseJsonMessages")
+    public void setParseJsonMessages(RNCWebViewWrapper view, boolean value) {
+        mRNCWebViewManagerImpl.setParseJsonMessages(view, value);
+    }
+
+    @ReactProp(name = "leanMessageEvents")
+    public void setLeanMessageEvents(RNCWebViewWrapper view, boolean value) {
+        mRNCWebViewManagerImpl.setLeanMessageEvents(view, value);
+    }
+
+    @ReactProp(name = "messageBatching")
+    public void setMessageBatching(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageBatching(view, value);
+    }
+
+    @ReactProp(name = "messageChunking")
+    public void setMessageChunking(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageChunking(view, value);
+    }
+
+    @ReactProp(name = "messageGroups")
+    public void setMessageGroups(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setMessageGroups(view, value);
+    }
+
+    @ReactProp(name = "messageOriginAllowlist")
+    public void setMessageOriginAllowlist(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setMessageOriginAllowlist(view, value);
+    }
+
+    @ReactProp(name = "messageQueue")
+    public void setMessageQueue(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageQueue(view, value);
+    }
+
+    @ReactProp(name = "messageReplayBuffer")
+    public void setMessageReplayBuffer(RNCWebViewWrapper view, @Nullable ReadableMap value) {
+        mRNCWebViewManagerImpl.setMessageReplayBuffer(view, value);
+    }
+
     @ReactProp(name = "messagingModuleName")
     public void setMessagingModuleName(RNCWebViewWrapper view, @Nullable String value) {
         mRNCWebViewManagerImpl.setMessagingModuleName(view, value);
@@ -203,6 +244,21 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper> {
         mRNCWebViewManagerImpl.setMixedContentMode(view, value);
     }
 
+    @ReactProp(name = "nativeStoreOrigins")
+    public void setNativeStoreOrigins(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setNativeStoreOrigins(view, value);
+    }
+
+    @ReactProp(name = "nativeStoreValues")
+    public void setNativeStoreValues(RNCWebViewWrapper view, @Nullable String value) {
+        mRNCWebViewManagerImpl.setNativeStoreValues(view, value);
+    }
+
+    @ReactProp(name = "navigationRules")
+    public void setNavigationRules(RNCWebViewWrapper view, @Nullable ReadableArray value) {
+        mRNCWebViewManagerImpl.setNavigationRules(view, value);
+    }
+
     @ReactProp(name = "nestedScrollEnabled")
     public void setNestedScrollEnabled(RNCWebViewWrapper view, boolean value) {
         mRNCWebViewManagerImpl.setNestedScrollEnabled(view, value);
@@ -238,6 +294,26 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper> {
         mRNCWebViewManagerImpl.setSetSupportMultipleWindows(view, value);
     }
 
+    @ReactProp(name = "shouldStartLoadMode")
+    public void setShouldStartLoadMode(RNCWebViewWrapper view, @Nullable String value) {
+        mRNCWebViewManagerImpl.setShouldStartLoadMode(view, value);
+    }
+
+    @ReactProp(name = "shouldStartLoadTimeout", defaultInt = RNCWebViewNavigationDecisions.DEFAULT_TIMEOUT_MS)
+    public void setShouldStartLoadTimeout(RNCWebViewWrapper view, int value) {
+        mRNCWebViewManagerImpl.setShouldStartLoadTimeout(view, value);
+    }
+
+    @ReactProp(name = "shouldStartLoadTimeoutPolicy")
+    public void setShouldStartLoadTimeoutPolicy(RNCWebViewWrapper view, @Nullable String value) {
+        mRNCWebViewManagerImpl.setShouldStartLoadTimeoutPolicy(view, value);
+    }
+
+    @ReactProp(name = "hasOnShouldStartLoadTimeout")
+    public void setHasOnShouldStartLoadTimeout(RNCWebViewWrapper view, boolean hasEvent) {
+        mRNCWebViewManagerImpl.setHasOnShouldStartLoadTimeout(view, hasEvent);
+    }
+
     @ReactProp(name = "showsHorizontalScrollIndicator")
     public void setShowsHorizontalScrollIndicator(RNCWebViewWrapper view, boolean value) {
         mRNCWebViewManagerImpl.setShowsHorizontalScrollIndicator(view, value);
@@ -294,6 +370,7 @@ public class RNCWebViewManager extends ViewGroupManager<RNCWebViewWrapper> {
 
         export.put(TopLoadingProgressEvent.EVENT_NAME, MapBuilder.of("registrationName", "onLoadingProgress"));
         export.put(TopShouldStartLoadWithRequestEvent.EVENT_NAME, MapBuilder.of("registrationName", "onShouldStartLoadWithRequest"));
+        export.put(TopShouldStartLoadTimeoutEvent.EVENT_NAME, MapBuilder.of("registrationName", "onShouldStartLoadTimeout"));
         export.put(ScrollEventType.getJSEventName(ScrollEventType.SCROLL), MapBuilder.of("registrationName", "onScroll"));
         export.put(TopHttpErrorEvent.EVENT_NAME, MapBuilder.of("registrationName", "onHttpError"));
         export.put(TopRenderProcessGoneEvent.EVENT_NAME, MapBuilder.of("registrationName", "onRenderProcessGone"));
@@ -10,6 +10,7 @@ import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.module.annotations.ReactModule;
 
 @ReactModule(name = RNCWebViewModuleImpl.NAME)
@@ -31,6 +32,61 @@ public class RNCWebViewModule extends ReactContextBaseJavaModule {
         mRNCWebViewModuleImpl.shouldStartLoadWithLockIdentifier(shouldStart, lockIdentifier);
     }
 
+    @ReactMethod
+    public void cacheNavigationDecision(double lockIdentifier, boolean shouldStart, double ttlMs, boolean byHost) {
+        mRNCWebViewModuleImpl.cacheNavigationDecision(lockIdentifier, shouldStart, ttlMs, byHost);
+    }
+
+    @ReactMethod
+    public void clearNavigationDecisionCache(double reactTag) {
+        mRNCWebViewModuleImpl.clearNavigationDecisionCache(reactTag);
+    }
+
+    @ReactMethod
+    public void resolveRequest(double requestId, String result, boolean isError) {
+        mRNCWebViewModuleImpl.resolveRequest(requestId, result, isError);
+    }
+
+    @ReactMethod
+    public void ackMessages(double queueId, double count) {
+        mRNCWebViewModuleImpl.ackMessages(queueId, count);
+    }
+
+    @ReactMethod
+    public void broadcastMessage(String group, String data) {
+        mRNCWebViewModuleImpl.broadcastMessage(group, data);
+    }
+
+    @ReactMethod
+    public void configureSavedStates(ReadableMap config) {
+        mRNCWebViewModuleImpl.configureSavedStates(config);
+    }
+
+    @ReactMethod
+    public void removeSavedState(String id) {
+        mRNCWebViewModuleImpl.removeSavedState(id);
+    }
+
+    @ReactMethod
+    public void getSavedStatesSize(Promise promise) {
+        mRNCWebViewModuleImpl.getSavedStatesSize(promise);
+    }
+
+    @ReactMethod
+    public void getMessageQueueStats(double reactTag, Promise promise) {
+        mRNCWebViewModuleImpl.getMessageQueueStats(reactTag, promise);
+    }
+
+    @ReactMethod
+    public void getBridgeMetrics(double reactTag, boolean reset, Promise promise) {
+        mRNCWebViewModuleImpl.getBridgeMetrics(reactTag, reset, promise);
+    }
+
+    @ReactMethod
+    public void getNavigationMetrics(double reactTag, boolean reset, Promise promise) {
+        mRNCWebViewModuleImpl.getNavigationMetrics(reactTag, reset, promise);
+    }
+
     public void startPhotoPickerIntent(ValueCallback<Uri> filePathCallback, String acceptType) {
         mRNCWebViewModuleImpl.startPhotoPickerIntent(acceptType, filePathCallback);
     }
@@ -0,0 +1,142 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.reactnativecommunity.webview.RNCWebViewChunkAssembler.Mode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RNCWebViewChunkAssemblerTest {
+
+    private static class RecordingTarget implements RNCWebViewChunkAssembler.Target {
+        final List<String> messages = new ArrayList<>();
+        final List<String> chunks = new ArrayList<>();
+        final List<Boolean> viaFallbackBridge = new ArrayList<>();
+        final List<String> sources = new ArrayList<>();
+
+        @Override
+        public void onMessage(String message, String sourceUrl, boolean isMainFrame, long receivedAtNanos, boolean viaFallbackBridge) {
+            messages.add(message);
+            this.viaFallbackBridge.add(viaFallbackBridge);
+            sources.add(sourceUrl + (isMainFrame ? " main" : " subframe"));
+        }
+
+        @Override
+        public void dispatchMessageChunk(String transferId, int index, boolean last, String data, String sourceUrl, boolean isMainFrame) {
+            chunks.add(transferId + "/" + index + (last ? "/last/" : "/") + data);
+            sources.add(sourceUrl + (isMainFrame ? " main" : " subframe"));
+        }
+    }
+
+    private final RecordingTarget target = new RecordingTarget();
+    private final RNCWebViewChunkAssembler assembler = new RNCWebViewChunkAssembler(target);
+
+    private void chunk(Object sender, String frame) {
+        assembler.onChunk(sender, frame, "https://example.com", true, false);
+    }
+
+    @Test
+    public void reassemblesPiecesInOrder() {
+        chunk("frame", "t1:0:m:hel");
+        chunk("frame", "t1:1:m:lo ");
+        assertTrue(target.messages.isEmpty());
+
+        chunk("frame", "t1:2:e:world:with:colons");
+
+        assertEquals(List.of("hello world:with:colons"), target.messages);
+    }
+
+    @Test
+    public void recordsWhichBridgeTheMessageCameThrough() {
+        assembler.onChunk("frame", "t1:0:e:a", "https://example.com", true, true);
+        assembler.onChunk("frame", "t2:0:e:b", "https://example.com", true, false);
+
+        assertEquals(List.of(true, false), target.viaFallbackBridge);
+    }
+
+    @Test
+    public void outOfOrderPiecesDropTheMessage() {
+        chunk("frame", "t1:0:m:a");
+        chunk("frame", "t1:2:m:c");
+        chunk("frame", "t1:1:e:b");
+
+        assertTrue(target.messages.isEmpty());
+    }
+
+    @Test
+    public void transfersFromDifferentFramesAreKeptApart() {
+        chunk("top", "t1:0:m:top-");
+        chunk("iframe", "t1:0:m:iframe-");
+        chunk("top", "t1:1:e:done");
+        chunk("iframe", "t1:1:e:done");
+
+        assertEquals(List.of("top-done", "iframe-done"), target.messages);
+    }
+
+    @Test
+    public void restartingATransferDropsWhatWasReceived() {
+        chunk("frame", "t1:0:m:stale");
+        chunk("frame", "t1:0:m:fresh-");
+        chunk("frame", "t1:1:e:end");
+
+        assertEquals(List.of("fresh-end"), target.messages);
+    }
+
+    @Test
+    public void messagesLargerThanTheMaximumAreDropped() {
+        assembler.configure(Mode.ASSEMBLE, 4);
+
+        chunk("frame", "t1:0:m:abc");
+        chunk("frame", "t1:1:e:de");
+        chunk("frame", "t2:0:m:ab");
+        chunk("frame", "t2:1:e:cd");
+
+        assertEquals(List.of("abcd"), target.messages);
+    }
+
+    @Test
+    public void malformedPiecesAreIgnored() {
+        chunk("frame", null);
+        chunk("frame", "nonsense");
+        chunk("frame", "t1:x:e:a");
+        chunk("frame", "t1:0:e");
+        chunk("frame", "t1:0:ee:a");
+
+        assertTrue(target.messages.isEmpty());
+    }
+
+    @Test
+    public void clearDropsPartialMessages() {
+        chunk("frame", "t1:0:m:a");
+        assembler.clear();
+        chunk("frame", "t1:1:e:b");
+
+        assertTrue(target.messages.isEmpty());
+    }
+
+    @Test
+    public void streamModePassesPiecesThrough() {
+        assembler.configure(Mode.STREAM, 0);
+
+        chunk("frame", "t1:0:m:a");
+        chunk("frame", "t1:1:e:b");
+
+        assertTrue(target.messages.isEmpty());
+        assertEquals(List.of("t1/0/a", "t1/1/last/b"), target.chunks);
+    }
+
+    @Test
+    public void sourceAndFrameTravelWithEveryMessage() {
+        assembler.onChunk("iframe", "t1:0:m:a", "https://ads.example", false, false);
+        assembler.onChunk("iframe", "t1:1:e:b", "https://ads.example", false, false);
+        chunk("top", "t2:0:e:c");
+        assembler.configure(Mode.STREAM, 0);
+        assembler.onChunk("iframe", "t3:0:e:d", "https://ads.example", false, false);
+
+        assertEquals(List.of("https://ads.example subframe", "https://example.com main", "https://ads.example subframe"), target.sources);
+    }
+}
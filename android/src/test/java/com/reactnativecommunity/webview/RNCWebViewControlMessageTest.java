@@ -0,0 +1,24 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class RNCWebViewControlMessageTest {
+
+    @Test
+    public void refreshSignalsToggleTheRefreshControl() {
+        assertEquals(Boolean.FALSE, RNCWebView.refreshEnabledFor(RNCWebView.CONTROL_DISABLE_REFRESH));
+        assertEquals(Boolean.TRUE, RNCWebView.refreshEnabledFor(RNCWebView.CONTROL_ENABLE_REFRESH));
+    }
+
+    @Test
+    public void onlyExactSignalsMatch() {
+        assertNull(RNCWebView.refreshEnabledFor("please disable_refresh now"));
+        assertNull(RNCWebView.refreshEnabledFor("{\"action\":\"enable_refresh\"}"));
+        assertNull(RNCWebView.refreshEnabledFor("DISABLE_REFRESH"));
+        assertNull(RNCWebView.refreshEnabledFor(""));
+        assertNull(RNCWebView.refreshEnabledFor(null));
+    }
+}
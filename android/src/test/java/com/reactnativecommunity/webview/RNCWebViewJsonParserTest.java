@@ -0,0 +1,74 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RNCWebViewJsonParserTest {
+
+    @Test
+    public void acceptsObjectsAndArrays() {
+        assertTrue(RNCWebViewJsonParser.isStrictJson("{}"));
+        assertTrue(RNCWebViewJsonParser.isStrictJson(" [ ] "));
+        assertTrue(RNCWebViewJsonParser.isStrictJson(
+          "{\"a\": [1, -2.5, 3e10, 0.1E-2, true, false, null], \"b\": {\"c\": \"\\u00e9\\n\\\"\"}}"));
+    }
+
+    @Test
+    public void rejectsTopLevelScalars() {
+        assertFalse(RNCWebViewJsonParser.isStrictJson("\"text\""));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("42"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("null"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson(""));
+    }
+
+    @Test
+    public void rejectsWhatJsonParseRejects() {
+        // All of these are accepted by org.json.JSONTokener.
+        assertFalse(RNCWebViewJsonParser.isStrictJson("{a: 1}"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("{'a': 1}"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("{\"a\": 'b'}"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("{\"a\" = 1}"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("{\"a\": 1; \"b\": 2}"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[1, 2,]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[1,,2]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[0x10]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[NaN]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[/* comment */ 1]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[unquoted]"));
+    }
+
+    @Test
+    public void rejectsMalformedNumbersAndStrings() {
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[01]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[1.]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[.5]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[+1]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[1e]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[\"\\x41\"]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[\"\\u12G4\"]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[\"line\nbreak\"]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[\"unterminated]"));
+    }
+
+    @Test
+    public void rejectsTrailingContentAndNonJsonWhitespace() {
+        assertFalse(RNCWebViewJsonParser.isStrictJson("{} {}"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[1] x"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("\u00a0[1]"));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[1"));
+    }
+
+    @Test
+    public void limitsNesting() {
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < RNCWebViewJsonParser.MAX_DEPTH; i++) {
+            deep.append('[');
+        }
+        String open = deep.toString();
+        String close = open.replace('[', ']');
+        assertTrue(RNCWebViewJsonParser.isStrictJson(open + close));
+        assertFalse(RNCWebViewJsonParser.isStrictJson("[" + open + close + "]"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RNCWebViewMessageBatcherTest {
+
+    private static class RecordingTarget implements RNCWebViewMessageBatcher.Target {
+        final List<List<String>> batches = new ArrayList<>();
+        Runnable scheduled;
+        long scheduledDelayMs;
+
+        @Override
+        public void dispatchMessageBatch(List<RNCWebViewMessage> messages) {
+            List<String> batch = new ArrayList<>();
+            for (RNCWebViewMessage message : messages) {
+                batch.add(message.data);
+            }
+            batches.add(batch);
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            scheduled = task;
+            scheduledDelayMs = delayMs;
+        }
+
+        @Override
+        public void removeCallbacks(Runnable task) {
+            if (scheduled == task) {
+                scheduled = null;
+            }
+        }
+
+        void runScheduled() {
+            Runnable task = scheduled;
+            scheduled = null;
+            task.run();
+        }
+    }
+
+    private static RNCWebViewMessage message(String data) {
+        return new RNCWebViewMessage(data, "https://example.com", true, 0, null);
+    }
+
+    @Test
+    public void pendingMessagesAreDeliveredTogetherAfterTheInterval() {
+        RecordingTarget target = new RecordingTarget();
+        RNCWebViewMessageBatcher batcher = new RNCWebViewMessageBatcher(target, 50, 10, 1024);
+
+        batcher.enqueue(message("a"));
+        batcher.enqueue(message("b"));
+        assertTrue(target.batches.isEmpty());
+        assertEquals(50, target.scheduledDelayMs);
+
+        target.runScheduled();
+
+        assertEquals(List.of(List.of("a", "b")), target.batches);
+    }
+
+    @Test
+    public void reachingTheMessageCountFlushesRightAway() {
+        RecordingTarget target = new RecordingTarget();
+        RNCWebViewMessageBatcher batcher = new RNCWebViewMessageBatcher(target, 50, 2, 1024);
+
+        batcher.enqueue(message("a"));
+        batcher.enqueue(message("b"));
+        batcher.enqueue(message("c"));
+
+        assertEquals(List.of(List.of("a", "b")), target.batches);
+        target.runScheduled();
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), target.batches);
+    }
+
+    @Test
+    public void batchesNeverGrowPastTheByteLimit() {
+        RecordingTarget target = new RecordingTarget();
+        // byteSize() counts two bytes per char.
+        RNCWebViewMessageBatcher batcher = new RNCWebViewMessageBatcher(target, 50, 10, 10);
+
+        batcher.enqueue(message("abc"));
+        batcher.enqueue(message("def"));
+
+        assertEquals(List.of(List.of("abc")), target.batches);
+        batcher.flush();
+        assertEquals(List.of(List.of("abc"), List.of("def")), target.batches);
+    }
+
+    @Test
+    public void oversizedMessagesAreDeliveredAlone() {
+        RecordingTarget target = new RecordingTarget();
+        RNCWebViewMessageBatcher batcher = new RNCWebViewMessageBatcher(target, 50, 10, 10);
+
+        batcher.enqueue(message("a"));
+        batcher.enqueue(message("too large"));
+
+        assertEquals(List.of(List.of("a"), List.of("too large")), target.batches);
+        assertNull(target.scheduled);
+    }
+
+    @Test
+    public void nonPositiveLimitsUseTheDefaults() {
+        RecordingTarget target = new RecordingTarget();
+        RNCWebViewMessageBatcher batcher = new RNCWebViewMessageBatcher(target, 50, 0, 0);
+
+        for (int i = 0; i < RNCWebViewMessageBatcher.DEFAULT_MAX_MESSAGES - 1; i++) {
+            batcher.enqueue(message("m"));
+        }
+        assertTrue(target.batches.isEmpty());
+
+        batcher.enqueue(message("m"));
+        assertEquals(1, target.batches.size());
+        assertEquals(RNCWebViewMessageBatcher.DEFAULT_MAX_MESSAGES, target.batches.get(0).size());
+    }
+
+    @Test
+    public void flushStopsTheTimerAndCancelDropsPendingMessages() {
+        RecordingTarget target = new RecordingTarget();
+        RNCWebViewMessageBatcher batcher = new RNCWebViewMessageBatcher(target, 50, 10, 1024);
+
+        batcher.enqueue(message("a"));
+        batcher.flush();
+        assertNull(target.scheduled);
+
+        batcher.enqueue(message("b"));
+        batcher.cancel();
+        assertNull(target.scheduled);
+        batcher.flush();
+
+        assertEquals(List.of(List.of("a")), target.batches);
+    }
+}
@@ -0,0 +1,24 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class RNCWebViewMessageChannelsTest {
+
+    @Test
+    public void portsArePostedToTheOriginOfTheDocument() {
+        assertEquals("https://example.com", RNCWebViewMessageChannels.originOf("https", "example.com", -1));
+        assertEquals("http://localhost:8081", RNCWebViewMessageChannels.originOf("http", "localhost", 8081));
+    }
+
+    @Test
+    public void documentsWithoutAHostHaveNoOrigin() {
+        // about:blank, data: and file: URLs
+        assertNull(RNCWebViewMessageChannels.originOf("about", null, -1));
+        assertNull(RNCWebViewMessageChannels.originOf("data", null, -1));
+        assertNull(RNCWebViewMessageChannels.originOf("file", "", -1));
+        assertNull(RNCWebViewMessageChannels.originOf(null, null, -1));
+    }
+}
@@ -0,0 +1,134 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RNCWebViewMessageConsumerRegistryTest {
+
+    private static class RecordingConsumer implements RNCWebViewMessageConsumer {
+        final List<String> messages = new ArrayList<>();
+        final CountDownLatch received;
+
+        RecordingConsumer(int expected) {
+            received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onMessage(String webViewId, String data, String sourceUrl, boolean isMainFrame) {
+            synchronized (messages) {
+                messages.add(webViewId + " " + data);
+            }
+            received.countDown();
+        }
+
+        List<String> await() throws InterruptedException {
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            synchronized (messages) {
+                return new ArrayList<>(messages);
+            }
+        }
+    }
+
+    private final List<RNCWebViewMessageConsumer> registered = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (RNCWebViewMessageConsumer consumer : registered) {
+            RNCWebViewMessageConsumerRegistry.remove(consumer);
+        }
+    }
+
+    private <T extends RNCWebViewMessageConsumer> T prefix(String prefix, T consumer) {
+        RNCWebViewMessageConsumerRegistry.addPrefix(prefix, consumer);
+        registered.add(consumer);
+        return consumer;
+    }
+
+    private <T extends RNCWebViewMessageConsumer> T envelope(String type, T consumer) {
+        RNCWebViewMessageConsumerRegistry.addEnvelopeType(type, consumer);
+        registered.add(consumer);
+        return consumer;
+    }
+
+    private static boolean consume(String data) {
+        return RNCWebViewMessageConsumerRegistry.consume("web", data, "https://example.com", true);
+    }
+
+    @Test
+    public void readsTheTopLevelTypeKey() {
+        assertEquals("analytics", RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"type\":\"analytics\",\"x\":1}"));
+        assertEquals("log", RNCWebViewMessageConsumerRegistry.envelopeTypeOf(" \n{ \"a\": [1, {}], \"type\" : \"log\" }"));
+        assertEquals("outer", RNCWebViewMessageConsumerRegistry.envelopeTypeOf(
+          "{\"payload\":{\"type\":\"inner\"},\"list\":[{\"type\":\"item\"}],\"type\":\"outer\"}"));
+        assertEquals("real", RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"kind\":\"type\",\"type\":\"real\"}"));
+    }
+
+    @Test
+    public void ignoresTypeKeysThatAreNotTopLevelKeys() {
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"payload\":{\"type\":\"inner\"}}"));
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"text\":\"\\\"type\\\":\\\"fake\\\"\"}"));
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{}{\"type\":\"next\"}"));
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("[{\"type\":\"item\"}]"));
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("type:analytics"));
+    }
+
+    @Test
+    public void onlyPlainStringTypesMatch() {
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"type\":1}"));
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"type\":{\"name\":\"x\"}}"));
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"type\":\"a\\\"b\"}"));
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"type\":\"unterminated"));
+    }
+
+    @Test
+    public void onlyTheStartOfTheMessageIsScanned() {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < RNCWebViewMessageConsumerRegistry.ENVELOPE_SCAN_LIMIT; i++) {
+            padding.append('x');
+        }
+        assertNull(RNCWebViewMessageConsumerRegistry.envelopeTypeOf("{\"pad\":\"" + padding + "\",\"type\":\"late\"}"));
+    }
+
+    @Test
+    public void matchingMessagesAreConsumedOffTheJsPath() throws InterruptedException {
+        RecordingConsumer beacons = prefix("beacon:", new RecordingConsumer(1));
+        RecordingConsumer logs = envelope("log", new RecordingConsumer(1));
+
+        assertTrue(consume("beacon:click"));
+        assertTrue(consume("{\"type\":\"log\",\"line\":\"hi\"}"));
+        assertFalse(consume("{\"type\":\"other\"}"));
+        assertFalse(consume("click beacon:"));
+
+        assertEquals(List.of("web beacon:click"), beacons.await());
+        assertEquals(List.of("web {\"type\":\"log\",\"line\":\"hi\"}"), logs.await());
+    }
+
+    @Test
+    public void theFirstMatchingConsumerWins() throws InterruptedException {
+        RecordingConsumer first = prefix("{", new RecordingConsumer(1));
+        RecordingConsumer second = envelope("log", new RecordingConsumer(0));
+
+        assertTrue(consume("{\"type\":\"log\"}"));
+
+        assertEquals(1, first.await().size());
+        assertTrue(second.await().isEmpty());
+    }
+
+    @Test
+    public void removedConsumersNoLongerMatch() {
+        RecordingConsumer consumer = prefix("beacon:", new RecordingConsumer(0));
+        RNCWebViewMessageConsumerRegistry.remove(consumer);
+
+        assertFalse(consume("beacon:click"));
+    }
+}
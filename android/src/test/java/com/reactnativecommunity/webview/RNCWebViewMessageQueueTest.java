@@ -0,0 +1,189 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.reactnativecommunity.webview.RNCWebViewMessageQueue.OverflowPolicy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class RNCWebViewMessageQueueTest {
+
+    private static class RecordingDelivery implements RNCWebViewMessageQueue.Delivery {
+        final List<String> delivered = new ArrayList<>();
+        boolean available = true;
+
+        @Override
+        public boolean deliver(RNCWebViewMessage message) {
+            if (!available) {
+                return false;
+            }
+            delivered.add(message.data);
+            return true;
+        }
+    }
+
+    private final RecordingDelivery delivery = new RecordingDelivery();
+
+    private RNCWebViewMessageQueue queue(int capacity, int maxInFlight, OverflowPolicy policy, Set<String> priorityTopics) {
+        return new RNCWebViewMessageQueue(delivery, capacity, maxInFlight, policy, ':', priorityTopics);
+    }
+
+    private RNCWebViewMessageQueue queue(int capacity, int maxInFlight, OverflowPolicy policy) {
+        return queue(capacity, maxInFlight, policy, Collections.emptySet());
+    }
+
+    private static void offer(RNCWebViewMessageQueue queue, String... messages) {
+        for (String message : messages) {
+            queue.offer(new RNCWebViewMessage(message, "https://example.com", true, 0, null));
+        }
+    }
+
+    /**
+     * Acknowledges every message as it is delivered, until the queue is empty.
+     */
+    private void drainAll(RNCWebViewMessageQueue queue) {
+        int acked = 0;
+        while (acked < delivery.delivered.size()) {
+            acked++;
+            queue.ack(1);
+        }
+    }
+
+    @Test
+    public void holdsMessagesUntilJsAcknowledges() {
+        RNCWebViewMessageQueue queue = queue(10, 2, OverflowPolicy.DROP_OLDEST);
+
+        offer(queue, "a", "b", "c");
+        assertEquals(List.of("a", "b"), delivery.delivered);
+
+        queue.ack(1);
+        assertEquals(List.of("a", "b", "c"), delivery.delivered);
+    }
+
+    @Test
+    public void dropOldestLosesTheOldestWaitingMessage() {
+        RNCWebViewMessageQueue queue = queue(2, 1, OverflowPolicy.DROP_OLDEST);
+
+        offer(queue, "a", "b", "c", "d");
+        drainAll(queue);
+
+        assertEquals(List.of("a", "c", "d"), delivery.delivered);
+    }
+
+    @Test
+    public void dropNewestLosesTheIncomingMessage() {
+        RNCWebViewMessageQueue queue = queue(2, 1, OverflowPolicy.DROP_NEWEST);
+
+        offer(queue, "a", "b", "c", "d");
+        drainAll(queue);
+
+        assertEquals(List.of("a", "b", "c"), delivery.delivered);
+    }
+
+    @Test
+    public void latestWinsReplacesTheWaitingMessageOfTheSameTopicInPlace() {
+        RNCWebViewMessageQueue queue = queue(10, 1, OverflowPolicy.LATEST_WINS);
+
+        offer(queue, "pos:1", "pos:2", "other:x", "pos:3", "untopical");
+        drainAll(queue);
+
+        assertEquals(List.of("pos:1", "pos:3", "other:x", "untopical"), delivery.delivered);
+    }
+
+    @Test
+    public void latestWinsDropsTheOldestWhenTheTopicIsNew() {
+        RNCWebViewMessageQueue queue = queue(2, 1, OverflowPolicy.LATEST_WINS);
+
+        offer(queue, "a:1", "b:1", "c:1", "d:1");
+        drainAll(queue);
+
+        assertEquals(List.of("a:1", "c:1", "d:1"), delivery.delivered);
+    }
+
+    @Test
+    public void topicsAreOnlyLookedUpAtTheStartOfTheMessage() {
+        RNCWebViewMessageQueue queue = queue(10, 1, OverflowPolicy.LATEST_WINS);
+        StringBuilder longTopic = new StringBuilder();
+        for (int i = 0; i < RNCWebViewMessageQueue.TOPIC_SCAN_LIMIT; i++) {
+            longTopic.append('t');
+        }
+        String late = longTopic + ":1";
+        String lateAgain = longTopic + ":2";
+
+        offer(queue, "first", late, lateAgain);
+        drainAll(queue);
+
+        assertEquals(List.of("first", late, lateAgain), delivery.delivered);
+    }
+
+    @Test
+    public void priorityTopicsAreDeliveredFirst() {
+        RNCWebViewMessageQueue queue = queue(10, 1, OverflowPolicy.DROP_OLDEST, Set.of("urgent"));
+
+        offer(queue, "a", "b", "urgent:1", "c", "urgent:2");
+        drainAll(queue);
+
+        assertEquals(List.of("a", "urgent:1", "urgent:2", "b", "c"), delivery.delivered);
+    }
+
+    @Test
+    public void overflowDropsBulkMessagesBeforePriorityMessages() {
+        RNCWebViewMessageQueue queue = queue(2, 1, OverflowPolicy.DROP_OLDEST, Set.of("urgent"));
+
+        offer(queue, "a", "urgent:1", "b", "c");
+        drainAll(queue);
+
+        assertEquals(List.of("a", "urgent:1", "c"), delivery.delivered);
+    }
+
+    @Test
+    public void undeliverableMessagesKeepTheirPlace() {
+        RNCWebViewMessageQueue queue = queue(10, 5, OverflowPolicy.DROP_OLDEST);
+        delivery.available = false;
+
+        offer(queue, "a", "b");
+        assertTrue(delivery.delivered.isEmpty());
+
+        delivery.available = true;
+        queue.ack(0);
+        assertEquals(List.of("a", "b"), delivery.delivered);
+    }
+
+    @Test
+    public void resetInFlightResumesWithoutWaitingForAcks() {
+        RNCWebViewMessageQueue queue = queue(10, 1, OverflowPolicy.DROP_OLDEST);
+        int previousId = queue.id;
+
+        offer(queue, "a", "b");
+        queue.resetInFlight();
+
+        assertEquals(List.of("a", "b"), delivery.delivered);
+        assertTrue(queue.id != previousId);
+    }
+
+    @Test
+    public void releaseForgetsWaitingMessages() {
+        RNCWebViewMessageQueue queue = queue(10, 1, OverflowPolicy.DROP_OLDEST);
+
+        offer(queue, "a", "b");
+        queue.release();
+        queue.ack(1);
+
+        assertEquals(List.of("a"), delivery.delivered);
+    }
+
+    @Test
+    public void unknownPoliciesFallBackToDropOldest() {
+        assertEquals(OverflowPolicy.DROP_NEWEST, OverflowPolicy.fromString("dropNewest"));
+        assertEquals(OverflowPolicy.LATEST_WINS, OverflowPolicy.fromString("latestWins"));
+        assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.fromString("dropOldest"));
+        assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.fromString("latest_wins"));
+        assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.fromString(null));
+    }
+}
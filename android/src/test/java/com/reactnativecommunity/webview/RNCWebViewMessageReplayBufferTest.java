@@ -0,0 +1,87 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RNCWebViewMessageReplayBufferTest {
+
+    private final List<String> replayed = new ArrayList<>();
+
+    private RNCWebViewMessageReplayBuffer buffer(int maxMessages, int maxAgeMs) {
+        return new RNCWebViewMessageReplayBuffer(message -> replayed.add(message.data), maxMessages, maxAgeMs);
+    }
+
+    private static RNCWebViewMessage message(String data, long ageMs) {
+        long receivedAtNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ageMs);
+        return new RNCWebViewMessage(data, "https://example.com", true, receivedAtNanos, null);
+    }
+
+    @Test
+    public void replaysMessagesInTheOrderTheyWerePosted() {
+        RNCWebViewMessageReplayBuffer buffer = buffer(10, 10_000);
+        assertTrue(buffer.isEmpty());
+
+        buffer.add(message("a", 0));
+        buffer.add(message("b", 0));
+        assertFalse(buffer.isEmpty());
+        buffer.replay();
+
+        assertEquals(List.of("a", "b"), replayed);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void theOldestMessageMakesRoomWhenFull() {
+        RNCWebViewMessageReplayBuffer buffer = buffer(2, 10_000);
+
+        buffer.add(message("a", 0));
+        buffer.add(message("b", 0));
+        buffer.add(message("c", 0));
+        buffer.replay();
+
+        assertEquals(List.of("b", "c"), replayed);
+    }
+
+    @Test
+    public void expiredMessagesAreNotReplayed() {
+        RNCWebViewMessageReplayBuffer buffer = buffer(10, 1_000);
+
+        buffer.add(message("stale", 5_000));
+        buffer.add(message("fresh", 0));
+        buffer.replay();
+
+        assertEquals(List.of("fresh"), replayed);
+    }
+
+    @Test
+    public void nonPositiveLimitsUseTheDefaults() {
+        RNCWebViewMessageReplayBuffer buffer = buffer(0, 0);
+
+        for (int i = 0; i <= RNCWebViewMessageReplayBuffer.DEFAULT_MAX_MESSAGES; i++) {
+            buffer.add(message(String.valueOf(i), 0));
+        }
+        buffer.replay();
+
+        assertEquals(RNCWebViewMessageReplayBuffer.DEFAULT_MAX_MESSAGES, replayed.size());
+        assertEquals("1", replayed.get(0));
+    }
+
+    @Test
+    public void clearForgetsBufferedMessages() {
+        RNCWebViewMessageReplayBuffer buffer = buffer(10, 10_000);
+
+        buffer.add(message("a", 0));
+        buffer.clear();
+        buffer.replay();
+
+        assertTrue(buffer.isEmpty());
+        assertTrue(replayed.isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class RNCWebViewNavigationDecisionCacheTest {
+
+    private long now = 1_000;
+    private final RNCWebViewNavigationDecisionCache cache = new RNCWebViewNavigationDecisionCache(() -> now);
+
+    @Test
+    public void decisionsExpireAfterTheirTtl() {
+        cache.put("https://example.com/a", true, 500, false);
+
+        now += 499;
+        assertEquals(Boolean.TRUE, cache.get("https://example.com/a"));
+        now += 1;
+        assertNull(cache.get("https://example.com/a"));
+    }
+
+    @Test
+    public void decisionsWithoutTtlAreNotCached() {
+        cache.put("https://example.com/a", true, 0, false);
+        cache.put("https://example.com/b", true, -1, true);
+
+        assertNull(cache.get("https://example.com/a"));
+        assertNull(cache.get("https://example.com/b"));
+    }
+
+    @Test
+    public void urlsMatchWithoutFragmentAndWithLowerCaseSchemeAndHost() {
+        cache.put("HTTPS://Example.COM/Path?q=1#top", false, 500, false);
+
+        assertEquals(Boolean.FALSE, cache.get("https://example.com/Path?q=1#bottom"));
+        assertNull(cache.get("https://example.com/path?q=1"));
+        assertNull(cache.get("https://example.com/Path?q=2"));
+    }
+
+    @Test
+    public void hostDecisionsCoverEveryUrlOfTheHost() {
+        cache.put("https://Example.com/a", false, 500, true);
+
+        assertEquals(Boolean.FALSE, cache.get("https://example.com/other?x#y"));
+        assertEquals(Boolean.FALSE, cache.get("http://user@EXAMPLE.com:8080/"));
+        assertNull(cache.get("https://sub.example.com/"));
+    }
+
+    @Test
+    public void urlDecisionsWinOverHostDecisions() {
+        cache.put("https://example.com/", true, 500, true);
+        cache.put("https://example.com/blocked", false, 500, false);
+
+        assertEquals(Boolean.FALSE, cache.get("https://example.com/blocked"));
+        assertEquals(Boolean.TRUE, cache.get("https://example.com/allowed"));
+    }
+
+    @Test
+    public void theLeastRecentlyUsedDecisionIsEvicted() {
+        for (int i = 0; i < RNCWebViewNavigationDecisionCache.MAX_ENTRIES; i++) {
+            cache.put("https://example.com/" + i, true, 500, false);
+        }
+        // Touch the oldest entry, the second oldest is evicted instead.
+        cache.get("https://example.com/0");
+        cache.put("https://example.com/new", true, 500, false);
+
+        assertEquals(Boolean.TRUE, cache.get("https://example.com/0"));
+        assertNull(cache.get("https://example.com/1"));
+        assertEquals(Boolean.TRUE, cache.get("https://example.com/new"));
+    }
+
+    @Test
+    public void clearForgetsEverything() {
+        cache.put("https://example.com/a", true, 500, false);
+        cache.put("https://example.com/a", true, 500, true);
+        cache.clear();
+
+        assertNull(cache.get("https://example.com/a"));
+    }
+
+    @Test
+    public void hostKeysIgnoreUserInfoAndPort() {
+        assertEquals("host:example.com", RNCWebViewNavigationDecisionCache.hostKey("https://user:pw@Example.com:8443/a"));
+        assertEquals("host:[::1]", RNCWebViewNavigationDecisionCache.hostKey("http://[::1]:8080/"));
+        assertNull(RNCWebViewNavigationDecisionCache.hostKey("about:blank"));
+        assertNull(RNCWebViewNavigationDecisionCache.hostKey("data:text/html,<p>hi</p>"));
+        assertNull(RNCWebViewNavigationDecisionCache.hostKey("file:///sdcard/index.html"));
+    }
+
+    @Test
+    public void urlKeysOnlyLowerCaseSchemeAndAuthority() {
+        assertEquals("url:https://example.com/A?B", RNCWebViewNavigationDecisionCache.urlKey("HTTPS://EXAMPLE.com/A?B#C"));
+        assertEquals("url:about:Blank", RNCWebViewNavigationDecisionCache.urlKey("ABOUT:Blank"));
+        assertEquals("url:/relative:Path", RNCWebViewNavigationDecisionCache.urlKey("/relative:Path"));
+    }
+}
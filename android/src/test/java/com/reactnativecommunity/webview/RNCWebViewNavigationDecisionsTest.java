@@ -0,0 +1,180 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.reactnativecommunity.webview.RNCWebViewNavigationDecisions.Pending;
+import com.reactnativecommunity.webview.RNCWebViewNavigationDecisions.TimeoutPolicy;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class RNCWebViewNavigationDecisionsTest {
+
+    private static class RecordingHost implements RNCWebViewNavigationDecisions.Host {
+        final RNCWebViewNavigationDecisionCache cache = new RNCWebViewNavigationDecisionCache(() -> 0);
+        final List<String> finished = new ArrayList<>();
+        int decisions = 0;
+
+        @Override
+        public RNCWebViewNavigationDecisionCache getDecisionCache() {
+            return cache;
+        }
+
+        @Override
+        public synchronized void onDecisionReceived(long latencyNanos) {
+            decisions++;
+        }
+
+        @Override
+        public synchronized void finishDeferred(String url, Map<String, String> headers, boolean shouldStart) {
+            finished.add((shouldStart ? "load " : "block ") + url + (headers != null ? " " + headers : ""));
+        }
+    }
+
+    private final RecordingHost host = new RecordingHost();
+
+    @After
+    public void tearDown() {
+        RNCWebViewNavigationDecisions.removeAll(host);
+    }
+
+    private static void resolveLater(long id, boolean shouldStart) {
+        new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+            RNCWebViewNavigationDecisions.resolve(id, shouldStart);
+        }).start();
+    }
+
+    @Test
+    public void aDecisionReleasesTheWaitingNavigation() throws InterruptedException {
+        Pending pending = RNCWebViewNavigationDecisions.create(host, "https://example.com", null);
+        assertSame(pending, RNCWebViewNavigationDecisions.get(pending.id));
+
+        resolveLater(pending.id, false);
+
+        assertTrue(pending.await(5_000));
+        assertFalse(pending.shouldStart());
+        assertEquals(1, host.decisions);
+        assertTrue(host.finished.isEmpty());
+    }
+
+    @Test
+    public void undecidedNavigationsTimeOut() throws InterruptedException {
+        Pending pending = RNCWebViewNavigationDecisions.create(host, "https://example.com", null);
+
+        assertFalse(pending.await(10));
+        assertFalse(pending.shouldStart());
+    }
+
+    @Test
+    public void navigationsAreDecidedIndependently() throws InterruptedException {
+        Pending first = RNCWebViewNavigationDecisions.create(host, "https://example.com/1", null);
+        Pending second = RNCWebViewNavigationDecisions.create(new RecordingHost(), "https://example.com/2", null);
+
+        RNCWebViewNavigationDecisions.resolve(second.id, true);
+
+        assertTrue(second.await(0));
+        assertTrue(second.shouldStart());
+        assertFalse(first.await(10));
+        RNCWebViewNavigationDecisions.remove(second);
+    }
+
+    @Test
+    public void removedNavigationsIgnoreLateDecisions() throws InterruptedException {
+        Pending pending = RNCWebViewNavigationDecisions.create(host, "https://example.com", null);
+        RNCWebViewNavigationDecisions.remove(pending);
+
+        RNCWebViewNavigationDecisions.resolve(pending.id, true);
+
+        assertNull(RNCWebViewNavigationDecisions.get(pending.id));
+        assertFalse(pending.await(0));
+        assertEquals(0, host.decisions);
+    }
+
+    @Test
+    public void removeAllOnlyDropsTheNavigationsOfThatWebView() {
+        RecordingHost other = new RecordingHost();
+        Pending mine = RNCWebViewNavigationDecisions.create(host, "https://example.com", null);
+        Pending theirs = RNCWebViewNavigationDecisions.create(other, "https://example.com", null);
+
+        RNCWebViewNavigationDecisions.removeAll(host);
+
+        assertNull(RNCWebViewNavigationDecisions.get(mine.id));
+        assertSame(theirs, RNCWebViewNavigationDecisions.get(theirs.id));
+        RNCWebViewNavigationDecisions.removeAll(other);
+    }
+
+    @Test
+    public void deferredNavigationsLoadOnceJsAllowsThem() {
+        Pending pending = RNCWebViewNavigationDecisions.create(host, "https://example.com", Map.of("X-Token", "1"));
+        pending.defer();
+        assertTrue(host.finished.isEmpty());
+
+        RNCWebViewNavigationDecisions.resolve(pending.id, true);
+        RNCWebViewNavigationDecisions.resolve(pending.id, true);
+
+        assertEquals(List.of("load https://example.com {X-Token=1}"), host.finished);
+        assertNull(RNCWebViewNavigationDecisions.get(pending.id));
+    }
+
+    @Test
+    public void deferredNavigationsEndWithoutLoadingWhenBlocked() {
+        Pending pending = RNCWebViewNavigationDecisions.create(host, "https://example.com", null);
+        pending.defer();
+
+        RNCWebViewNavigationDecisions.resolve(pending.id, false);
+
+        assertEquals(List.of("block https://example.com"), host.finished);
+    }
+
+    @Test
+    public void aDecisionBeforeTheDeferralIsNotLost() {
+        // JS answered between the timeout and the call to defer().
+        Pending pending = RNCWebViewNavigationDecisions.create(host, "https://example.com", null);
+        RNCWebViewNavigationDecisions.resolve(pending.id, true);
+
+        pending.defer();
+
+        assertEquals(List.of("load https://example.com"), host.finished);
+        assertNull(RNCWebViewNavigationDecisions.get(pending.id));
+    }
+
+    @Test
+    public void aNewDeferredNavigationSupersedesTheOldOne() {
+        RecordingHost other = new RecordingHost();
+        Pending first = RNCWebViewNavigationDecisions.create(host, "https://example.com/1", null);
+        Pending otherWebView = RNCWebViewNavigationDecisions.create(other, "https://example.com/other", null);
+        first.defer();
+        otherWebView.defer();
+
+        Pending second = RNCWebViewNavigationDecisions.create(host, "https://example.com/2", null);
+        second.defer();
+        RNCWebViewNavigationDecisions.resolve(first.id, true);
+        RNCWebViewNavigationDecisions.resolve(second.id, true);
+        RNCWebViewNavigationDecisions.resolve(otherWebView.id, true);
+
+        assertEquals(List.of("load https://example.com/2"), host.finished);
+        assertEquals(List.of("load https://example.com/other"), other.finished);
+    }
+
+    @Test
+    public void unknownTimeoutPoliciesAllowTheNavigation() {
+        assertEquals(TimeoutPolicy.DENY, TimeoutPolicy.fromString("deny"));
+        assertEquals(TimeoutPolicy.DEFER, TimeoutPolicy.fromString("defer"));
+        assertEquals(TimeoutPolicy.ALLOW, TimeoutPolicy.fromString("allow"));
+        assertEquals(TimeoutPolicy.ALLOW, TimeoutPolicy.fromString("Deny"));
+        assertEquals(TimeoutPolicy.ALLOW, TimeoutPolicy.fromString(null));
+    }
+}
@@ -0,0 +1,131 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.reactnativecommunity.webview.RNCWebViewNavigationRules.Action;
+
+import org.junit.Test;
+
+public class RNCWebViewNavigationRulesTest {
+
+    private static RNCWebViewNavigationRules compile(JavaOnlyMap... rules) {
+        RNCWebViewNavigationRules compiled = RNCWebViewNavigationRules.compile(JavaOnlyArray.of((Object[]) rules));
+        assertNotNull(compiled);
+        return compiled;
+    }
+
+    private static Action decide(RNCWebViewNavigationRules rules, String scheme, String host, String path) {
+        return rules.decide(scheme + "://" + host + path, scheme, host, path);
+    }
+
+    @Test
+    public void wildcardHostMatchesDomainAndSubdomains() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "deny", "hosts", JavaOnlyArray.of("*.example.com")));
+
+        assertEquals(Action.DENY, decide(rules, "https", "example.com", "/"));
+        assertEquals(Action.DENY, decide(rules, "https", "a.b.example.com", "/"));
+        assertNull(decide(rules, "https", "evil-example.com", "/"));
+        assertNull(decide(rules, "https", "example.com.evil.org", "/"));
+    }
+
+    @Test
+    public void exactHostDoesNotMatchSubdomains() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "allow", "hosts", JavaOnlyArray.of("Example.com")));
+
+        assertEquals(Action.ALLOW, decide(rules, "https", "example.com", "/"));
+        assertNull(decide(rules, "https", "www.example.com", "/"));
+    }
+
+    @Test
+    public void singleStarStaysWithinOneSegment() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "allow", "paths", JavaOnlyArray.of("/docs/*")));
+
+        assertEquals(Action.ALLOW, decide(rules, "https", "example.com", "/docs/intro"));
+        assertNull(decide(rules, "https", "example.com", "/docs/guides/intro"));
+    }
+
+    @Test
+    public void doubleStarSpansSegments() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "allow", "paths", JavaOnlyArray.of("/docs/**")));
+
+        assertEquals(Action.ALLOW, decide(rules, "https", "example.com", "/docs/guides/intro"));
+        assertNull(decide(rules, "https", "example.com", "/blog/docs/intro"));
+    }
+
+    @Test
+    public void globLiteralsAreNotRegex() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "deny", "paths", JavaOnlyArray.of("/a.b/(x)")));
+
+        assertEquals(Action.DENY, decide(rules, "https", "example.com", "/a.b/(x)"));
+        assertNull(decide(rules, "https", "example.com", "/aXb/x"));
+    }
+
+    @Test
+    public void everyCriterionMustMatch() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of(
+            "action", "allow",
+            "schemes", JavaOnlyArray.of("HTTPS"),
+            "hosts", JavaOnlyArray.of("example.com"),
+            "pattern", "\\?ref=app"));
+
+        assertEquals(Action.ALLOW, decide(rules, "https", "example.com", "/?ref=app"));
+        assertNull(decide(rules, "http", "example.com", "/?ref=app"));
+        assertNull(decide(rules, "https", "example.com", "/"));
+    }
+
+    @Test
+    public void firstMatchingRuleDecides() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "ask", "paths", JavaOnlyArray.of("/login")),
+          JavaOnlyMap.of("action", "allow", "hosts", JavaOnlyArray.of("example.com")));
+
+        assertEquals(Action.ASK, decide(rules, "https", "example.com", "/login"));
+        assertEquals(Action.ALLOW, decide(rules, "https", "example.com", "/home"));
+    }
+
+    @Test
+    public void invalidRulesAreSkipped() {
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "deny", "pattern", "(["),
+          JavaOnlyMap.of("action", "block", "hosts", JavaOnlyArray.of("example.com")),
+          JavaOnlyMap.of("action", "allow", "hosts", JavaOnlyArray.of("example.com")));
+
+        assertEquals(Action.ALLOW, decide(rules, "https", "example.com", "/"));
+    }
+
+    @Test
+    public void allowRulesLoadWithoutAskingJs() {
+        // originWhitelist is only checked in JS, so this is also what lets an allow rule load a URL
+        // outside of it. Documented on the prop, keep it deliberate.
+        RNCWebViewNavigationRules rules = compile(
+          JavaOnlyMap.of("action", "allow", "hosts", JavaOnlyArray.of("not-whitelisted.example")));
+
+        assertFalse(RNCWebViewNavigationRules.shouldOverride(
+          decide(rules, "https", "not-whitelisted.example", "/")));
+    }
+
+    @Test
+    public void denyBlocksAndEverythingElseGoesToJs() {
+        assertTrue(RNCWebViewNavigationRules.shouldOverride(Action.DENY));
+        assertNull(RNCWebViewNavigationRules.shouldOverride(Action.ASK));
+        assertNull(RNCWebViewNavigationRules.shouldOverride(null));
+    }
+
+    @Test
+    public void nothingLeftCompilesToNull() {
+        assertNull(RNCWebViewNavigationRules.compile(null));
+        assertNull(RNCWebViewNavigationRules.compile(JavaOnlyArray.of(JavaOnlyMap.of("action", "deny", "pattern", "(["))));
+    }
+}
@@ -0,0 +1,72 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Set;
+
+public class RNCWebViewOriginRulesTest {
+
+    private static boolean matches(String scheme, String host, int port, String... rules) {
+        return RNCWebView.matchesOriginRules(scheme, host, port, Set.of(rules));
+    }
+
+    @Test
+    public void wildcardAllowsEverything() {
+        assertTrue(matches("https", "example.com", -1, "*"));
+        assertTrue(matches(null, null, -1, "*"));
+        assertTrue(RNCWebView.matchesOriginRules((String) null, Set.of("*")));
+    }
+
+    @Test
+    public void exactOriginsMatchSchemeHostAndPort() {
+        assertTrue(matches("https", "example.com", -1, "https://example.com"));
+        assertTrue(matches("https", "EXAMPLE.com", -1, "HTTPS://example.COM"));
+        assertFalse(matches("http", "example.com", -1, "https://example.com"));
+        assertFalse(matches("https", "sub.example.com", -1, "https://example.com"));
+        assertFalse(matches("https", "example.com", 8443, "https://example.com"));
+        assertTrue(matches("https", "example.com", 8443, "https://example.com:8443"));
+    }
+
+    @Test
+    public void defaultPortsCompareEqual() {
+        assertTrue(matches("https", "example.com", 443, "https://example.com"));
+        assertTrue(matches("https", "example.com", -1, "https://example.com:443"));
+        assertTrue(matches("http", "example.com", 80, "http://example.com"));
+        assertTrue(matches("wss", "example.com", -1, "wss://example.com:443"));
+        assertFalse(matches("http", "example.com", 443, "http://example.com"));
+    }
+
+    @Test
+    public void wildcardHostsOnlyMatchSubdomains() {
+        assertTrue(matches("https", "a.example.com", -1, "https://*.example.com"));
+        assertTrue(matches("https", "a.b.example.com", -1, "https://*.example.com"));
+        assertFalse(matches("https", "example.com", -1, "https://*.example.com"));
+        assertFalse(matches("https", "evil-example.com", -1, "https://*.example.com"));
+    }
+
+    @Test
+    public void ipv6HostsKeepTheirColons() {
+        assertTrue(matches("http", "[::1]", 8080, "http://[::1]:8080"));
+        assertTrue(matches("http", "[::1]", -1, "http://[::1]"));
+        assertFalse(matches("http", "[::1]", 8080, "http://[::1]"));
+    }
+
+    @Test
+    public void urlsWithoutOriginAndBrokenRulesNeverMatch() {
+        assertFalse(matches(null, "example.com", -1, "https://example.com"));
+        assertFalse(matches("https", null, -1, "https://example.com"));
+        assertFalse(matches("https", "example.com", -1, "example.com"));
+        assertFalse(matches("https", "example.com", -1, "https://"));
+        assertFalse(matches("https", "example.com", -1, "https://example.com:port"));
+    }
+
+    @Test
+    public void fallbackBridgesRejectMessagesBeforeTheFirstPageStarts() {
+        // The JavascriptInterface bridges check the tracked URL, which is null until a page starts.
+        assertTrue(RNCWebView.matchesOriginRules((String) null, RNCWebView.ALL_ORIGINS));
+        assertFalse(RNCWebView.matchesOriginRules((String) null, Set.of("https://example.com")));
+    }
+}
@@ -0,0 +1,143 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.webkit.JavaScriptReplyProxy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RNCWebViewRpcTest {
+
+    private static class FakeScheduler implements RNCWebViewRpc.Scheduler {
+        final Map<Runnable, Long> pending = new LinkedHashMap<>();
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            pending.put(task, delayMs);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            pending.remove(task);
+        }
+
+        void runAll() {
+            List<Runnable> tasks = new ArrayList<>(pending.keySet());
+            pending.clear();
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+    }
+
+    private static class RecordingReplyProxy extends JavaScriptReplyProxy {
+        final List<String> replies = new ArrayList<>();
+
+        @Override
+        public void postMessage(String message) {
+            replies.add(message);
+        }
+    }
+
+    private final Object owner = new Object();
+    private RNCWebViewRpc.Scheduler previousScheduler;
+    private FakeScheduler scheduler;
+    private RecordingReplyProxy proxy;
+
+    @Before
+    public void setUp() {
+        previousScheduler = RNCWebViewRpc.sScheduler;
+        scheduler = new FakeScheduler();
+        RNCWebViewRpc.sScheduler = scheduler;
+        proxy = new RecordingReplyProxy();
+    }
+
+    @After
+    public void tearDown() {
+        RNCWebViewRpc.cancelAll(owner);
+        RNCWebViewRpc.sScheduler = previousScheduler;
+    }
+
+    @Test
+    public void resolveRepliesOnceAndStopsTheDeadline() {
+        long callId = RNCWebViewRpc.start(owner, proxy, "7", 500);
+        assertEquals(Long.valueOf(500), scheduler.pending.values().iterator().next());
+
+        RNCWebViewRpc.resolve(callId, "ok", false);
+        RNCWebViewRpc.resolve(callId, "again", false);
+
+        assertEquals(List.of("7:r:ok"), proxy.replies);
+        assertTrue(scheduler.pending.isEmpty());
+    }
+
+    @Test
+    public void errorsAndMissingResultsAreReplied() {
+        long failed = RNCWebViewRpc.start(owner, proxy, "1", 500);
+        long empty = RNCWebViewRpc.start(owner, proxy, "2", 500);
+
+        RNCWebViewRpc.resolve(failed, "boom", true);
+        RNCWebViewRpc.resolve(empty, null, false);
+
+        assertEquals(List.of("1:e:boom", "2:r:"), proxy.replies);
+    }
+
+    @Test
+    public void deadlineRejectsWithTimeoutAndLateAnswersAreDropped() {
+        long callId = RNCWebViewRpc.start(owner, proxy, "3", 500);
+
+        scheduler.runAll();
+        RNCWebViewRpc.resolve(callId, "late", false);
+
+        assertEquals(List.of("3:e:timeout"), proxy.replies);
+    }
+
+    @Test
+    public void nonPositiveTimeoutUsesTheDefault() {
+        RNCWebViewRpc.start(owner, proxy, "1", 0);
+        RNCWebViewRpc.start(owner, proxy, "2", -5);
+
+        for (long delayMs : scheduler.pending.values()) {
+            assertEquals(RNCWebViewRpc.DEFAULT_TIMEOUT_MS, delayMs);
+        }
+        assertEquals(2, scheduler.pending.size());
+    }
+
+    @Test
+    public void pageCancellationOnlyDropsTheMatchingCall() {
+        RecordingReplyProxy otherFrame = new RecordingReplyProxy();
+        long cancelled = RNCWebViewRpc.start(owner, proxy, "5", 500);
+        long sameIdOtherFrame = RNCWebViewRpc.start(owner, otherFrame, "5", 500);
+
+        RNCWebViewRpc.cancel(proxy, "5");
+        assertEquals(1, scheduler.pending.size());
+
+        RNCWebViewRpc.resolve(cancelled, "ignored", false);
+        RNCWebViewRpc.resolve(sameIdOtherFrame, "ok", false);
+
+        assertTrue(proxy.replies.isEmpty());
+        assertEquals(List.of("5:r:ok"), otherFrame.replies);
+    }
+
+    @Test
+    public void cancelAllOnlyDropsTheCallsOfThatWebView() {
+        Object otherOwner = new Object();
+        long dropped = RNCWebViewRpc.start(owner, proxy, "1", 500);
+        long kept = RNCWebViewRpc.start(otherOwner, proxy, "2", 500);
+
+        RNCWebViewRpc.cancelAll(owner);
+        assertEquals(1, scheduler.pending.size());
+
+        RNCWebViewRpc.resolve(dropped, "ignored", false);
+        RNCWebViewRpc.resolve(kept, "ok", false);
+
+        assertEquals(List.of("2:r:ok"), proxy.replies);
+    }
+}
@@ -0,0 +1,198 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RNCWebViewStateIndexTest {
+
+    private static Map<String, Long> files(Object... namesAndSizes) {
+        Map<String, Long> files = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndSizes.length; i += 2) {
+            files.put((String) namesAndSizes[i], ((Number) namesAndSizes[i + 1]).longValue());
+        }
+        return files;
+    }
+
+    private static List<String> order(RNCWebViewStateIndex index) throws IOException {
+        return RNCWebViewStateIndex.decode(index.encode());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlySavedFirst() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        index.put("b", 10);
+        index.put("c", 10);
+
+        assertEquals(Arrays.asList("a", "b"), index.evict(1, Long.MAX_VALUE));
+        assertEquals(1, index.size());
+        assertEquals(10, index.bytes());
+    }
+
+    @Test
+    public void evictsUntilTheBytesFit() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 40);
+        index.put("b", 30);
+        index.put("c", 50);
+
+        assertEquals(Arrays.asList("a", "b"), index.evict(10, 60));
+        assertEquals(50, index.bytes());
+    }
+
+    @Test
+    public void aStateLargerThanTheLimitIsEvictedToo() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 100);
+
+        assertEquals(Collections.singletonList("a"), index.evict(10, 60));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void nothingIsEvictedWithinTheLimits() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        index.encode();
+
+        assertTrue(index.evict(1, 10).isEmpty());
+        assertFalse(index.isDirty());
+    }
+
+    @Test
+    public void restoringAStateMakesItTheMostRecentlyUsed() throws IOException {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        index.put("b", 10);
+
+        assertTrue(index.markUsed("a", 10));
+
+        assertEquals(Collections.singletonList("b"), index.evict(1, Long.MAX_VALUE));
+        assertEquals(Collections.singletonList("a"), order(index));
+    }
+
+    @Test
+    public void restoringTheMostRecentlyUsedStateDoesNotRewriteTheIndex() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        index.put("b", 10);
+        index.encode();
+
+        assertFalse(index.markUsed("b", 10));
+        assertFalse(index.isDirty());
+    }
+
+    @Test
+    public void restoringAnUnknownStateAddsItsSize() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+
+        assertTrue(index.markUsed("b", 25));
+
+        assertEquals(2, index.size());
+        assertEquals(35, index.bytes());
+    }
+
+    @Test
+    public void savingAgainReplacesTheSize() throws IOException {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        index.put("b", 10);
+        index.put("a", 30);
+
+        assertEquals(2, index.size());
+        assertEquals(40, index.bytes());
+        assertEquals(Arrays.asList("b", "a"), order(index));
+    }
+
+    @Test
+    public void removeForgetsTheSize() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        index.put("b", 20);
+        index.encode();
+
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+
+        assertTrue(index.isDirty());
+        assertEquals(1, index.size());
+        assertEquals(20, index.bytes());
+    }
+
+    @Test
+    public void writtenOrderIsRestored() throws IOException {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("b", 10);
+        index.put("a", 20);
+        List<String> written = order(index);
+
+        RNCWebViewStateIndex loaded = new RNCWebViewStateIndex();
+        loaded.load(files("a", 20, "b", 10), written);
+
+        assertFalse(loaded.isDirty());
+        assertEquals(30, loaded.bytes());
+        assertEquals(Collections.singletonList("b"), loaded.evict(1, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void unindexedFilesAreOlderThanIndexedOnes() throws IOException {
+        // Files listed least recently modified first, e.g. migrated legacy states.
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.load(files("indexed", 10, "old", 10, "new", 10), Collections.singletonList("indexed"));
+
+        assertTrue(index.isDirty());
+        assertEquals(Arrays.asList("old", "new", "indexed"), order(index));
+    }
+
+    @Test
+    public void deletedFilesAreDroppedFromTheIndex() throws IOException {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.load(files("a", 10), Arrays.asList("gone", "a"));
+
+        assertTrue(index.isDirty());
+        assertEquals(Collections.singletonList("a"), order(index));
+        assertEquals(10, index.bytes());
+    }
+
+    @Test
+    public void encodingMarksTheIndexWritten() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        assertTrue(index.isDirty());
+
+        index.encode();
+        assertFalse(index.isDirty());
+
+        index.markDirty();
+        assertTrue(index.isDirty());
+    }
+
+    @Test
+    public void anIndexOfAnotherVersionIsIgnored() throws IOException {
+        byte[] bytes = new RNCWebViewStateIndex().encode();
+        bytes[3]++;
+
+        assertTrue(RNCWebViewStateIndex.decode(bytes).isEmpty());
+    }
+
+    @Test
+    public void aTruncatedIndexFailsToDecode() {
+        RNCWebViewStateIndex index = new RNCWebViewStateIndex();
+        index.put("a", 10);
+        byte[] bytes = index.encode();
+
+        assertThrows(IOException.class, () -> RNCWebViewStateIndex.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+}
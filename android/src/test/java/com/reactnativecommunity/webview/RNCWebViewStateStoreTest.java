@@ -0,0 +1,54 @@
+package com.reactnativecommunity.webview;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RNCWebViewStateStoreTest {
+
+    @Test
+    public void fileNamesAreTheSha256OfTheId() {
+        assertEquals(
+          "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.state",
+          RNCWebViewStateStore.fileNameOf("abc"));
+    }
+
+    @Test
+    public void anyIdMakesAPlainFileName() {
+        for (String id : Arrays.asList("", "../../etc/passwd", "a/b\\c:d", "\u9875\u9762 \uD83D\uDE42", "index")) {
+            String name = RNCWebViewStateStore.fileNameOf(id);
+            assertTrue(name, name.matches("[0-9a-f]{64}\\.state"));
+        }
+        assertNotEquals(RNCWebViewStateStore.fileNameOf("a"), RNCWebViewStateStore.fileNameOf("A"));
+    }
+
+    @Test
+    public void onlyReadableLegacyStatesAreMigrated() {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put("first", "state-1");
+        entries.put("appFlag", true);
+        entries.put("appCount", 3);
+        entries.put("unreadable", "garbage");
+        entries.put("second", "state-2");
+        List<String> decoded = new ArrayList<>();
+
+        Map<String, byte[]> states = RNCWebViewStateStore.readableLegacyStates(entries, (id, value) -> {
+            decoded.add(id);
+            return value.startsWith("state-") ? value.getBytes(StandardCharsets.UTF_8) : null;
+        });
+
+        assertEquals(Arrays.asList("first", "unreadable", "second"), decoded);
+        assertEquals(Arrays.asList("first", "second"), new ArrayList<>(states.keySet()));
+        assertArrayEquals("state-2".getBytes(StandardCharsets.UTF_8), states.get("second"));
+    }
+}
@@ -545,5 +545,17 @@ Class<RCTComponentViewProtocol> RNCWebViewCls(void)
     // android only
 }
 
+- (void)openMessageChannel:(nonnull NSString *)name {
+    // android only
+}
+
+- (void)postChannelMessage:(nonnull NSString *)name data:(nonnull NSString *)data {
+    // android only
+}
+
+- (void)closeMessageChannel:(nonnull NSString *)name {
+    // android only
+}
+
 @end
 #endif
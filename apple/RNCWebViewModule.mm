@@ -21,6 +21,65 @@ RCT_EXPORT_METHOD(shouldStartLoadWithLockIdentifier:(BOOL)shouldStart lockIdenti
     [[RNCWebViewDecisionManager getInstance] setResult:shouldStart forLockIdentifier:(int)lockIdentifier];
 }
 
+RCT_EXPORT_METHOD(resolveRequest:(double)requestId result:(NSString *)result isError:(BOOL)isError)
+{
+    // android only
+}
+
+RCT_EXPORT_METHOD(ackMessages:(double)queueId count:(double)count)
+{
+    // android only
+}
+
+RCT_EXPORT_METHOD(getMessageQueueStats:(double)reactTag resolve:(RCTPromiseResolveBlock)resolve reject:(RCTPromiseRejectBlock)reject)
+{
+    // android only
+    resolve(nil);
+}
+
+RCT_EXPORT_METHOD(getBridgeMetrics:(double)reactTag reset:(BOOL)reset resolve:(RCTPromiseResolveBlock)resolve reject:(RCTPromiseRejectBlock)reject)
+{
+    // android only
+    resolve(nil);
+}
+
+RCT_EXPORT_METHOD(broadcastMessage:(NSString *)group data:(NSString *)data)
+{
+    // android only
+}
+
+RCT_EXPORT_METHOD(cacheNavigationDecision:(double)lockIdentifier shouldStart:(BOOL)shouldStart ttlMs:(double)ttlMs byHost:(BOOL)byHost)
+{
+    // android only
+}
+
+RCT_EXPORT_METHOD(clearNavigationDecisionCache:(double)reactTag)
+{
+    // android only
+}
+
+RCT_EXPORT_METHOD(getNavigationMetrics:(double)reactTag reset:(BOOL)reset resolve:(RCTPromiseResolveBlock)resolve reject:(RCTPromiseRejectBlock)reject)
+{
+    // android only
+    resolve(nil);
+}
+
+RCT_EXPORT_METHOD(configureSavedStates:(NSDictionary *)config)
+{
+    // android only
+}
+
+RCT_EXPORT_METHOD(removeSavedState:(NSString *)stateId)
+{
+    // android only
+}
+
+RCT_EXPORT_METHOD(getSavedStatesSize:(RCTPromiseResolveBlock)resolve reject:(RCTPromiseRejectBlock)reject)
+{
+    // android only
+    resolve(nil);
+}
+
 #ifdef RCT_NEW_ARCH_ENABLED
 - (std::shared_ptr<facebook::react::TurboModule>)getTurboModule:(const facebook::react::ObjCTurboModule::InitParams &)params {
   return std::make_shared<facebook::react::NativeRNCWebViewModuleSpecJSI>(params);
@@ -1,12 +1,36 @@
 import { Component } from 'react';
 // eslint-disable-next-line
-import { IOSWebViewProps, AndroidWebViewProps, WindowsWebViewProps } from './lib/WebViewTypes';
+import { IOSWebViewProps, AndroidWebViewProps, WindowsWebViewProps, SavedStatesConfig, SavedStatesSize, MessageQueueStats, BridgeMetrics, WebViewMessageChannel, WebViewMessageEvent, NavigationMetrics } from './lib/WebViewTypes';
 
 export { FileDownload, WebViewMessageEvent, WebViewNavigation } from "./lib/WebViewTypes";
 
 export type WebViewProps = IOSWebViewProps & AndroidWebViewProps & WindowsWebViewProps;
 
 declare class WebView<P = {}> extends Component<WebViewProps & P> {
+    /**
+     * (Android only)
+     * Sends `data` to every WebView whose `messageGroups` contains `group`. Does nothing on other platforms.
+     */
+    static broadcastMessage: (group: string, data: string) => void;
+
+    /**
+     * (Android only)
+     * Sets how many states, and how many bytes of them, are kept for WebViews rendered with a `source.id`.
+     */
+    static configureSavedStates: (config: SavedStatesConfig) => void;
+
+    /**
+     * (Android only)
+     * Deletes the state saved for the WebView rendered with `source.id` equal to `id`.
+     */
+    static removeSavedState: (id: string) => void;
+
+    /**
+     * (Android only)
+     * Resolves the number and total size of the saved states, `null` on other platforms.
+     */
+    static getSavedStatesSize: () => Promise<SavedStatesSize | null>;
+
     /**
      * Go back one page in the webview's history.
      */
@@ -60,6 +84,36 @@ declare class WebView<P = {}> extends Component<WebViewProps & P> {
      * Tells this WebView to clear its internal back/forward list.
      */
     clearHistory?: () => void;
+
+     /**
+     * (Android only)
+     * Resolves the counters of the `messageQueue`, or `null` when the WebView is not mounted.
+     */
+    getMessageQueueStats?: () => Promise<MessageQueueStats | null>;
+
+     /**
+     * (Android only)
+     * Resolves the bridge throughput and latency counters, or `null` when the WebView is not mounted. Pass `true` to reset them.
+     */
+    getBridgeMetrics?: (reset?: boolean) => Promise<BridgeMetrics | null>;
+
+     /**
+     * (Android only)
+     * Opens a named channel to the page. Messages the page sends on it are passed to `onChannelMessage` instead of `onMessage`.
+     */
+    createMessageChannel?: (name: string, onChannelMessage: (event: WebViewMessageEvent) => void) => WebViewMessageChannel;
+
+     /**
+     * (Android only)
+     * Forgets the navigation decisions cached for this WebView.
+     */
+    clearNavigationDecisionCache?: () => void;
+
+     /**
+     * (Android only)
+     * Resolves the navigation decision counters, or `null` when the WebView is not mounted. Pass `true` to reset them.
+     */
+    getNavigationMetrics?: (reset?: boolean) => Promise<NavigationMetrics | null>;
 }
 
 export {WebView};
@@ -8,6 +8,22 @@ export interface Spec extends TurboModule {
     shouldStart: boolean,
     lockIdentifier: Double
   ): void;
+  cacheNavigationDecision(
+    lockIdentifier: Double,
+    shouldStart: boolean,
+    ttlMs: Double,
+    byHost: boolean
+  ): void;
+  clearNavigationDecisionCache(reactTag: Double): void;
+  resolveRequest(requestId: Double, result: string, isError: boolean): void;
+  ackMessages(queueId: Double, count: Double): void;
+  broadcastMessage(group: string, data: string): void;
+  configureSavedStates(config: Object): void;
+  removeSavedState(stateId: string): void;
+  getSavedStatesSize(): Promise<Object>;
+  getMessageQueueStats(reactTag: Double): Promise<Object>;
+  getBridgeMetrics(reactTag: Double, reset: boolean): Promise<Object>;
+  getNavigationMetrics(reactTag: Double, reset: boolean): Promise<Object>;
 }
 
 export default TurboModuleRegistry.getEnforcing<Spec>('RNCWebViewModule');
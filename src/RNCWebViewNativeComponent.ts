@@ -30,6 +30,16 @@ export type WebViewMessageEvent = Readonly<{
   lockIdentifier: Double;
   data: string;
 }>;
+export type WebViewShouldStartLoadTimeoutEvent = Readonly<{
+  url: string;
+  loading: boolean;
+  title: string;
+  canGoBack: boolean;
+  canGoForward: boolean;
+  timeoutMs: Double;
+  policy: string;
+  timeouts: Double;
+}>;
 export type WebViewOpenWindowEvent = Readonly<{
   targetUrl: string;
 }>;
@@ -160,22 +170,67 @@ export interface NativeProps extends ViewProps {
   forceDarkOn?: boolean;
   geolocationEnabled?: boolean;
   lackPermissionToDownloadMessage?: string;
+  leanMessageEvents?: boolean;
+  messageBatching?: Readonly<{
+    intervalMs?: Int32;
+    maxMessages?: Int32;
+    maxBytes?: Int32;
+  }>;
+  messageChunking?: Readonly<{
+    mode?: string;
+    maxMessageSize?: Int32;
+  }>;
+  messageGroups?: ReadonlyArray<string>;
+  messageOriginAllowlist?: ReadonlyArray<string>;
+  messageQueue?: Readonly<{
+    capacity?: Int32;
+    maxInFlight?: Int32;
+    overflowPolicy?: string;
+    topicDelimiter?: string;
+    priorityTopics?: ReadonlyArray<string>;
+  }>;
+  messageReplayBuffer?: Readonly<{
+    maxMessages?: Int32;
+    maxAgeMs?: Int32;
+  }>;
   messagingModuleName: string;
   minimumFontSize?: Int32;
   mixedContentMode?: WithDefault<'never' | 'always' | 'compatibility', 'never'>;
+  nativeStoreOrigins?: ReadonlyArray<string>;
+  nativeStoreValues?: string;
+  navigationRules?: ReadonlyArray<
+    Readonly<{
+      action: string;
+      schemes?: ReadonlyArray<string>;
+      hosts?: ReadonlyArray<string>;
+      paths?: ReadonlyArray<string>;
+      pattern?: string;
+    }>
+  >;
   nestedScrollEnabled?: boolean;
   onContentSizeChange?: DirectEventHandler<WebViewNativeEvent>;
   onRenderProcessGone?: DirectEventHandler<WebViewRenderProcessGoneEvent>;
+  onShouldStartLoadTimeout?: DirectEventHandler<
+    WebViewShouldStartLoadTimeoutEvent
+  >;
   overScrollMode?: string;
+  parseJsonMessages?: boolean;
   saveFormDataDisabled?: boolean;
   scalesPageToFit?: WithDefault<boolean, true>;
   setBuiltInZoomControls?: WithDefault<boolean, true>;
   setDisplayZoomControls?: boolean;
   setSupportMultipleWindows?: WithDefault<boolean, true>;
+  shouldStartLoadMode?: WithDefault<'sync' | 'async', 'sync'>;
+  shouldStartLoadTimeout?: WithDefault<Int32, 250>;
+  shouldStartLoadTimeoutPolicy?: WithDefault<
+    'allow' | 'deny' | 'defer',
+    'allow'
+  >;
   textZoom?: Int32;
   thirdPartyCookiesEnabled?: WithDefault<boolean, true>;
   // Workaround to watch if listener if defined
   hasOnScroll?: boolean;
+  hasOnShouldStartLoadTimeout?: boolean;
   // !Android only
 
   // iOS only
@@ -322,6 +377,19 @@ export interface NativeCommands {
     includeDiskFiles: boolean
   ) => void;
   clearHistory: (viewRef: React.ElementRef<HostComponent<NativeProps>>) => void;
+  openMessageChannel: (
+    viewRef: React.ElementRef<HostComponent<NativeProps>>,
+    name: string
+  ) => void;
+  postChannelMessage: (
+    viewRef: React.ElementRef<HostComponent<NativeProps>>,
+    name: string,
+    data: string
+  ) => void;
+  closeMessageChannel: (
+    viewRef: React.ElementRef<HostComponent<NativeProps>>,
+    name: string
+  ) => void;
   // !Android Only
 }
 
@@ -338,6 +406,9 @@ export const Commands = codegenNativeCommands<NativeCommands>({
     'clearFormData',
     'clearCache',
     'clearHistory',
+    'openMessageChannel',
+    'postChannelMessage',
+    'closeMessageChannel',
   ],
 });
 
@@ -7,7 +7,13 @@ import React, {
   useRef,
 } from 'react';
 
-import { Image, View, ImageSourcePropType, HostComponent } from 'react-native';
+import {
+  Image,
+  View,
+  ImageSourcePropType,
+  HostComponent,
+  findNodeHandle,
+} from 'react-native';
 
 import BatchedBridge from 'react-native/Libraries/BatchedBridge/BatchedBridge';
 import EventEmitter from 'react-native/Libraries/vendor/emitter/EventEmitter';
@@ -25,7 +31,15 @@ import {
 import {
   AndroidWebViewProps,
   WebViewSourceUri,
+  type BridgeMetrics,
+  type MessageQueueStats,
+  type NavigationMetrics,
+  type SavedStatesConfig,
+  type SavedStatesSize,
+  type WebViewMessage,
+  type WebViewMessageChannel,
   type WebViewMessageEvent,
+  type ShouldStartLoadDecision,
   type ShouldStartLoadRequestEvent,
 } from './WebViewTypes';
 
@@ -35,6 +49,45 @@ const { resolveAssetSource } = Image;
 
 const directEventEmitter = new EventEmitter();
 
+const BlobManager = require('react-native/Libraries/Blob/BlobManager');
+
+/**
+ * Binary page messages arrive as a reference to bytes held by the native
+ * BlobModule. Turn that reference into a regular `Blob`.
+ */
+const withMessageBlob = (event: WebViewMessageEvent): WebViewMessageEvent => {
+  const { blob } = event.nativeEvent;
+  if (!blob || blob instanceof Blob) {
+    return event;
+  }
+  return {
+    ...event,
+    nativeEvent: {
+      ...event.nativeEvent,
+      blob: BlobManager.createFromOptions(blob),
+    },
+  };
+};
+
+/**
+ * Pages read every store value as a string: objects and arrays are stored as
+ * JSON, `null` and `undefined` values are left out.
+ */
+const serializeStoreValues = (
+  values: Record<string, unknown> | undefined
+): string | undefined =>
+  values &&
+  JSON.stringify(
+    Object.fromEntries(
+      Object.entries(values)
+        .filter(([, value]) => value != null)
+        .map(([key, value]) => [
+          key,
+          typeof value === 'object' ? JSON.stringify(value) : String(value),
+        ])
+    )
+  );
+
 const registerCallableModule: (name: string, module: Object) => void =
   // `registerCallableModule()` is available in React Native 0.74 and above.
   // Fallback to use `BatchedBridge.registerCallableModule()` for older versions.
@@ -87,6 +140,7 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
       onHttpError: onHttpErrorProp,
       onRenderProcessGone: onRenderProcessGoneProp,
       onMessage: onMessageProp,
+      onRequest: onRequestProp,
       onOpenWindow: onOpenWindowProp,
       renderLoading,
       renderError,
@@ -96,6 +150,7 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
       nativeConfig,
       onShouldStartLoadWithRequest: onShouldStartLoadWithRequestProp,
       injectedJavaScriptObject,
+      nativeStoreValues,
       ...otherProps
     },
     ref
@@ -106,10 +161,26 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
     const webViewRef = useRef<React.ComponentRef<
       HostComponent<NativeProps>
     > | null>(null);
+    const channelHandlers = useRef(
+      new Map<string, (event: WebViewMessageEvent) => void>()
+    );
 
     const onShouldStartLoadWithRequestCallback = useCallback(
-      (shouldStart: boolean, url: string, lockIdentifier?: number) => {
+      (
+        shouldStart: boolean,
+        url: string,
+        lockIdentifier?: number,
+        decision?: ShouldStartLoadDecision
+      ) => {
         if (lockIdentifier) {
+          if (decision?.cacheTtlMs) {
+            RNCWebViewModule.cacheNavigationDecision(
+              lockIdentifier,
+              shouldStart,
+              decision.cacheTtlMs,
+              decision.cacheScope === 'host'
+            );
+          }
           RNCWebViewModule.shouldStartLoadWithLockIdentifier(
             shouldStart,
             lockIdentifier
@@ -124,7 +195,7 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
     const {
       onLoadingStart,
       onShouldStartLoadWithRequest,
-      onMessage,
+      onMessage: onMessageLogic,
       viewState,
       setViewState,
       lastErrorEvent,
@@ -151,6 +222,56 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
       onShouldStartLoadWithRequestCallback,
     });
 
+    const onRequest = useCallback(
+      (event: WebViewMessageEvent, requestId: number) => {
+        Promise.resolve()
+          .then(() => {
+            if (!onRequestProp) {
+              throw new Error('No onRequest handler');
+            }
+            return onRequestProp(event);
+          })
+          .then(
+            (result) =>
+              RNCWebViewModule.resolveRequest(requestId, String(result), false),
+            (error) =>
+              RNCWebViewModule.resolveRequest(
+                requestId,
+                String(error?.message ?? error),
+                true
+              )
+          );
+      },
+      [onRequestProp]
+    );
+
+    const onMessage = useCallback(
+      (event: WebViewMessageEvent) => {
+        const { requestId, queueId, messages, channel } =
+          event.nativeEvent as WebViewMessage & {
+            requestId?: number;
+            queueId?: number;
+            messages?: unknown[];
+          };
+        if (requestId != null) {
+          onRequest(event, requestId);
+          return;
+        }
+        if (channel != null) {
+          channelHandlers.current.get(channel)?.(event);
+          return;
+        }
+        try {
+          onMessageLogic(withMessageBlob(event));
+        } finally {
+          if (queueId != null) {
+            RNCWebViewModule.ackMessages(queueId, messages?.length ?? 1);
+          }
+        }
+      },
+      [onMessageLogic, onRequest]
+    );
+
     useImperativeHandle(
       ref,
       () => ({
@@ -181,6 +302,60 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
           Commands.clearCache(webViewRef.current, includeDiskFiles),
         clearHistory: () =>
           webViewRef.current && Commands.clearHistory(webViewRef.current),
+        getMessageQueueStats: () => {
+          const reactTag = findNodeHandle(webViewRef.current);
+          return reactTag == null
+            ? Promise.resolve(null)
+            : (RNCWebViewModule.getMessageQueueStats(
+                reactTag
+              ) as Promise<MessageQueueStats | null>);
+        },
+        createMessageChannel: (
+          name: string,
+          onChannelMessage: (event: WebViewMessageEvent) => void
+        ): WebViewMessageChannel => {
+          if (!webViewRef.current) {
+            // Never opened, so nothing will ever arrive for the handler.
+            return { postMessage: () => {}, close: () => {} };
+          }
+          channelHandlers.current.set(name, onChannelMessage);
+          Commands.openMessageChannel(webViewRef.current, name);
+          return {
+            postMessage: (data: string) =>
+              webViewRef.current &&
+              Commands.postChannelMessage(webViewRef.current, name, data),
+            close: () => {
+              channelHandlers.current.delete(name);
+              if (webViewRef.current) {
+                Commands.closeMessageChannel(webViewRef.current, name);
+              }
+            },
+          };
+        },
+        clearNavigationDecisionCache: () => {
+          const reactTag = findNodeHandle(webViewRef.current);
+          if (reactTag != null) {
+            RNCWebViewModule.clearNavigationDecisionCache(reactTag);
+          }
+        },
+        getBridgeMetrics: (reset: boolean = false) => {
+          const reactTag = findNodeHandle(webViewRef.current);
+          return reactTag == null
+            ? Promise.resolve(null)
+            : (RNCWebViewModule.getBridgeMetrics(
+                reactTag,
+                reset
+              ) as Promise<BridgeMetrics | null>);
+        },
+        getNavigationMetrics: (reset: boolean = false) => {
+          const reactTag = findNodeHandle(webViewRef.current);
+          return reactTag == null
+            ? Promise.resolve(null)
+            : (RNCWebViewModule.getNavigationMetrics(
+                reactTag,
+                reset
+              ) as Promise<NavigationMetrics | null>);
+        },
       }),
       [setViewState, webViewRef]
     );
@@ -282,9 +457,13 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
       <NativeWebView
         key="webViewKey"
         {...otherProps}
-        messagingEnabled={typeof onMessageProp === 'function'}
+        messagingEnabled={
+          typeof onMessageProp === 'function' ||
+          typeof onRequestProp === 'function'
+        }
         messagingModuleName={messagingModuleName}
         hasOnScroll={!!otherProps.onScroll}
+        hasOnShouldStartLoadTimeout={!!otherProps.onShouldStartLoadTimeout}
         onLoadingError={onLoadingError}
         onLoadingFinish={onLoadingFinish}
         onLoadingProgress={onLoadingProgress}
@@ -315,6 +494,7 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
         setDisplayZoomControls={setDisplayZoomControls}
         nestedScrollEnabled={nestedScrollEnabled}
         injectedJavaScriptObject={JSON.stringify(injectedJavaScriptObject)}
+        nativeStoreValues={serializeStoreValues(nativeStoreValues)}
         {...nativeConfig?.props}
       />
     );
@@ -331,6 +511,35 @@ const WebViewComponent = forwardRef<{}, AndroidWebViewProps>(
 // native implementation should return "true" only for Android 5+
 const { isFileUploadSupported } = RNCWebViewModule;
 
-const WebView = Object.assign(WebViewComponent, { isFileUploadSupported });
+/**
+ * Sends `data` to every WebView whose `messageGroups` contains `group`.
+ */
+const broadcastMessage = (group: string, data: string) =>
+  RNCWebViewModule.broadcastMessage(group, data);
+
+/**
+ * Sets how many states, and how many bytes of them, are kept for WebViews
+ * rendered with a `source.id`. The least recently used states are evicted
+ * first.
+ */
+const configureSavedStates = (config: SavedStatesConfig) =>
+  RNCWebViewModule.configureSavedStates(config);
+
+/**
+ * Deletes the state saved for the WebView rendered with `source.id` equal to
+ * `id`.
+ */
+const removeSavedState = (id: string) => RNCWebViewModule.removeSavedState(id);
+
+const getSavedStatesSize = () =>
+  RNCWebViewModule.getSavedStatesSize() as Promise<SavedStatesSize>;
+
+const WebView = Object.assign(WebViewComponent, {
+  isFileUploadSupported,
+  broadcastMessage,
+  configureSavedStates,
+  removeSavedState,
+  getSavedStatesSize,
+});
 
 export default WebView;
@@ -19,6 +19,8 @@ import {
 import {
   IOSWebViewProps,
   DecelerationRateConstant,
+  SavedStatesConfig,
+  SavedStatesSize,
   WebViewSourceUri,
 } from './WebViewTypes';
 
@@ -296,6 +298,21 @@ const WebViewComponent = forwardRef<{}, IOSWebViewProps>(
 // no native implementation for iOS, depends only on permissions
 const isFileUploadSupported: () => Promise<boolean> = async () => true;
 
-const WebView = Object.assign(WebViewComponent, { isFileUploadSupported });
+// `messageGroups` are Android only, there is nothing to broadcast to on iOS
+const broadcastMessage: (group: string, data: string) => void = () => {};
+
+// WebView states are only saved on Android, see `source.id`
+const configureSavedStates: (config: SavedStatesConfig) => void = () => {};
+const removeSavedState: (id: string) => void = () => {};
+const getSavedStatesSize: () => Promise<SavedStatesSize | null> = async () =>
+  null;
+
+const WebView = Object.assign(WebViewComponent, {
+  isFileUploadSupported,
+  broadcastMessage,
+  configureSavedStates,
+  removeSavedState,
+  getSavedStatesSize,
+});
 
 export default WebView;
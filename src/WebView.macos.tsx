@@ -14,7 +14,12 @@ import {
   defaultRenderLoading,
   useWebViewLogic,
 } from './WebViewShared';
-import { MacOSWebViewProps, WebViewSourceUri } from './WebViewTypes';
+import {
+  MacOSWebViewProps,
+  SavedStatesConfig,
+  SavedStatesSize,
+  WebViewSourceUri,
+} from './WebViewTypes';
 
 import styles from './WebView.styles';
 
@@ -241,6 +246,21 @@ const WebViewComponent = forwardRef<{}, MacOSWebViewProps>(
 // no native implementation for macOS, depends only on permissions
 const isFileUploadSupported: () => Promise<boolean> = async () => true;
 
-const WebView = Object.assign(WebViewComponent, { isFileUploadSupported });
+// `messageGroups` are Android only, there is nothing to broadcast to on macOS
+const broadcastMessage: (group: string, data: string) => void = () => {};
+
+// WebView states are only saved on Android, see `source.id`
+const configureSavedStates: (config: SavedStatesConfig) => void = () => {};
+const removeSavedState: (id: string) => void = () => {};
+const getSavedStatesSize: () => Promise<SavedStatesSize | null> = async () =>
+  null;
+
+const WebView = Object.assign(WebViewComponent, {
+  isFileUploadSupported,
+  broadcastMessage,
+  configureSavedStates,
+  removeSavedState,
+  getSavedStatesSize,
+});
 
 export default WebView;
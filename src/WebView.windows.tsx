@@ -26,7 +26,12 @@ import {
   defaultRenderError,
   defaultRenderLoading,
 } from './WebViewShared';
-import { NativeWebViewWindows, WindowsWebViewProps } from './WebViewTypes';
+import {
+  NativeWebViewWindows,
+  SavedStatesConfig,
+  SavedStatesSize,
+  WindowsWebViewProps,
+} from './WebViewTypes';
 
 import styles from './WebView.styles';
 
@@ -205,6 +210,21 @@ const WebViewComponent = forwardRef<{}, WindowsWebViewProps>(
 // native implementation should return "true" only for Android 5+
 const isFileUploadSupported: () => Promise<boolean> = async () => false;
 
-const WebView = Object.assign(WebViewComponent, { isFileUploadSupported });
+// `messageGroups` are Android only, there is nothing to broadcast to on Windows
+const broadcastMessage: (group: string, data: string) => void = () => {};
+
+// WebView states are only saved on Android, see `source.id`
+const configureSavedStates: (config: SavedStatesConfig) => void = () => {};
+const removeSavedState: (id: string) => void = () => {};
+const getSavedStatesSize: () => Promise<SavedStatesSize | null> = async () =>
+  null;
+
+const WebView = Object.assign(WebViewComponent, {
+  isFileUploadSupported,
+  broadcastMessage,
+  configureSavedStates,
+  removeSavedState,
+  getSavedStatesSize,
+});
 
 export default WebView;
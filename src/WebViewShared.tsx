@@ -3,10 +3,12 @@ import React, { useCallback, useMemo, useRef, useState } from 'react';
 import { Linking, View, ActivityIndicator, Text, Platform } from 'react-native';
 import {
   OnShouldStartLoadWithRequest,
+  ShouldStartLoadDecision,
   ShouldStartLoadRequestEvent,
   WebViewError,
   WebViewErrorEvent,
   WebViewHttpErrorEvent,
+  WebViewMessage,
   WebViewMessageEvent,
   WebViewNavigation,
   WebViewNavigationEvent,
@@ -41,13 +43,15 @@ const createOnShouldStartLoadWithRequest = (
   loadRequest: (
     shouldStart: boolean,
     url: string,
-    lockIdentifier: number
+    lockIdentifier: number,
+    decision?: ShouldStartLoadDecision
   ) => void,
   originWhitelist: readonly string[],
   onShouldStartLoadWithRequest?: OnShouldStartLoadWithRequest
 ) => {
   return ({ nativeEvent }: ShouldStartLoadRequestEvent) => {
     let shouldStart = true;
+    let decision: ShouldStartLoadDecision | undefined;
     const { url, lockIdentifier } = nativeEvent;
 
     if (!passesWhitelist(compileWhitelist(originWhitelist), url)) {
@@ -64,13 +68,49 @@ const createOnShouldStartLoadWithRequest = (
         });
       shouldStart = false;
     } else if (onShouldStartLoadWithRequest) {
-      shouldStart = onShouldStartLoadWithRequest(nativeEvent);
+      const result = onShouldStartLoadWithRequest(nativeEvent);
+      if (typeof result === 'object' && result !== null) {
+        decision = result;
+        shouldStart = result.shouldStart;
+      } else {
+        shouldStart = result;
+      }
     }
 
-    loadRequest(shouldStart, url, lockIdentifier);
+    if (decision) {
+      loadRequest(shouldStart, url, lockIdentifier, decision);
+    } else {
+      loadRequest(shouldStart, url, lockIdentifier);
+    }
   };
 };
 
+type WebViewMessageBatch = WebViewMessage & {
+  messages?: ReadonlyArray<{
+    data: string;
+    url: string;
+    isMainFrame?: boolean;
+  }>;
+};
+
+/**
+ * Android can deliver several page messages in one event (see the
+ * `messageBatching` prop). Splits such an event back into one event per message.
+ */
+const expandMessageBatch = (
+  event: WebViewMessageEvent
+): WebViewMessageEvent[] => {
+  const { messages, ...nativeEvent } =
+    event.nativeEvent as WebViewMessageBatch;
+  if (!messages) {
+    return [event];
+  }
+  return messages.map((message) => ({
+    ...event,
+    nativeEvent: { ...nativeEvent, ...message },
+  }));
+};
+
 const defaultRenderLoading = () => (
   <View style={styles.loadingOrErrorView}>
     <ActivityIndicator />
@@ -92,6 +132,7 @@ const defaultRenderError = (
 export {
   defaultOriginWhitelist,
   createOnShouldStartLoadWithRequest,
+  expandMessageBatch,
   defaultRenderLoading,
   defaultRenderError,
 };
@@ -130,7 +171,8 @@ export const useWebViewLogic = ({
   onShouldStartLoadWithRequestCallback: (
     shouldStart: boolean,
     url: string,
-    lockIdentifier?: number | undefined
+    lockIdentifier?: number | undefined,
+    decision?: ShouldStartLoadDecision
   ) => void;
 }) => {
   const [viewState, setViewState] = useState<'IDLE' | 'LOADING' | 'ERROR'>(
@@ -222,7 +264,10 @@ export const useWebViewLogic = ({
 
   const onMessage = useCallback(
     (event: WebViewMessageEvent) => {
-      onMessageProp?.(event);
+      if (!onMessageProp) {
+        return;
+      }
+      expandMessageBatch(event).forEach(onMessageProp);
     },
     [onMessageProp]
   );
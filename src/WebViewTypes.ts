@@ -110,6 +110,55 @@ export type DecelerationRateConstant = 'normal' | 'fast';
 
 export interface WebViewMessage extends WebViewNativeEvent {
   data: string;
+  /**
+   * Set when the page posted an `ArrayBuffer` (Android only, requires
+   * `window.ReactNativeWebView.arrayBufferSupported`). `data` is empty in that case.
+   */
+  blob?: Blob;
+  /**
+   * Set when the page used `window.ReactNativeWebView.postLargeMessage` and
+   * `messageChunking.mode` is `stream` (Android only). `data` then holds one
+   * piece of the message; pieces of the same message share `id`.
+   */
+  chunk?: {
+    id: string;
+    index: number;
+    last: boolean;
+  };
+  /**
+   * Whether the message was posted by the main frame rather than an iframe
+   * (Android only).
+   */
+  isMainFrame?: boolean;
+  /**
+   * The parsed message when `parseJsonMessages` is set and the page posted a
+   * JSON object or array (Android only). `data` is empty in that case.
+   */
+  json?: unknown;
+  /**
+   * Name of the channel the message was sent on, for channels created with
+   * `createMessageChannel()` (Android only). Such messages are passed to the
+   * channel's handler instead of `onMessage`.
+   */
+  channel?: string;
+}
+
+/**
+ * A channel created with `createMessageChannel()` (Android only). The page
+ * gets its end through `window.ReactNativeWebView.getChannel(name)`, so
+ * channels need `messagingEnabled` (i.e. an `onMessage` prop), and they are
+ * only connected to documents whose origin passes `messageOriginAllowlist`.
+ */
+export interface WebViewMessageChannel {
+  /**
+   * Sends `data` to the page's end of the channel. Messages sent before the
+   * page has loaded are dropped.
+   */
+  postMessage: (data: string) => void;
+  /**
+   * Closes the channel on both ends.
+   */
+  close: () => void;
 }
 
 export interface WebViewError extends WebViewNativeEvent {
@@ -134,6 +183,22 @@ export interface WebViewOpenWindow {
   targetUrl: string;
 }
 
+export interface WebViewShouldStartLoadTimeout
+  extends Omit<WebViewNativeEvent, 'lockIdentifier'> {
+  /**
+   * The `shouldStartLoadTimeout` that elapsed.
+   */
+  timeoutMs: number;
+  /**
+   * The `shouldStartLoadTimeoutPolicy` applied to the navigation.
+   */
+  policy: 'allow' | 'deny' | 'defer';
+  /**
+   * Timeouts so far, as reported by `getNavigationMetrics()`.
+   */
+  timeouts: number;
+}
+
 export type WebViewEvent = NativeSyntheticEvent<WebViewNativeEvent>;
 
 export type WebViewProgressEvent =
@@ -159,6 +224,9 @@ export type WebViewRenderProcessGoneEvent =
 
 export type WebViewOpenWindowEvent = NativeSyntheticEvent<WebViewOpenWindow>;
 
+export type WebViewShouldStartLoadTimeoutEvent =
+  NativeSyntheticEvent<WebViewShouldStartLoadTimeout>;
+
 export type WebViewScrollEvent = NativeSyntheticEvent<NativeScrollEvent>;
 
 export type DataDetectorTypes =
@@ -182,6 +250,223 @@ export type CacheMode =
 
 export type AndroidLayerType = 'none' | 'software' | 'hardware';
 
+export interface MessageBatchingConfig {
+  /**
+   * How long to collect messages before delivering them, in milliseconds.
+   * `0` (default) delivers once per frame.
+   */
+  intervalMs?: number;
+  /**
+   * Deliver the batch early once it holds this many messages. Default is 100.
+   */
+  maxMessages?: number;
+  /**
+   * Deliver the batch early once its payloads reach this size (approximate,
+   * in bytes). Default is 1 MiB.
+   */
+  maxBytes?: number;
+}
+
+export interface MessageChunkingConfig {
+  /**
+   * - `assemble` (default) delivers the whole message once its last piece
+   *   has arrived.
+   * - `stream` delivers every piece as its own message, see
+   *   `WebViewMessage.chunk`.
+   */
+  mode?: 'assemble' | 'stream';
+  /**
+   * Largest message, in characters, that is reassembled. Bigger messages are
+   * dropped. Default is 16M characters.
+   */
+  maxMessageSize?: number;
+}
+
+export interface MessageQueueConfig {
+  /**
+   * Maximum number of messages waiting to be delivered. Default is 200.
+   */
+  capacity?: number;
+  /**
+   * Maximum number of messages handed to JS before `onMessage` has handled
+   * them. Default is 16.
+   */
+  maxInFlight?: number;
+  /**
+   * What to do when the queue is full:
+   * - `dropOldest` (default) drops the oldest waiting message.
+   * - `dropNewest` drops the incoming message.
+   * - `latestWins` replaces the waiting message with the same topic, even
+   *   before the queue is full, and drops the oldest message otherwise.
+   */
+  overflowPolicy?: 'dropOldest' | 'dropNewest' | 'latestWins';
+  /**
+   * Character that ends the topic at the start of a message, e.g. the topic
+   * of `"scroll:{...}"` is `"scroll"`. Only the first 64 characters are
+   * looked at. Default is `:`.
+   */
+  topicDelimiter?: string;
+  /**
+   * Topics delivered ahead of any other waiting message.
+   */
+  priorityTopics?: string[];
+}
+
+export interface NavigationRule {
+  action: 'allow' | 'deny' | 'ask';
+  /**
+   * Matching URL schemes, e.g. `['https']`.
+   */
+  schemes?: string[];
+  /**
+   * Matching hosts, either exact or `*.example.com` for `example.com` and
+   * its subdomains.
+   */
+  hosts?: string[];
+  /**
+   * Matching path globs, where `*` matches within a path segment and `**`
+   * across segments, e.g. `/docs/**`.
+   */
+  paths?: string[];
+  /**
+   * Java regular expression searched for in the whole URL.
+   */
+  pattern?: string;
+}
+
+export interface MessageReplayBufferConfig {
+  /**
+   * Maximum number of messages held, the oldest one is dropped when a new
+   * one arrives. Default is 100.
+   */
+  maxMessages?: number;
+  /**
+   * Messages older than this, in ms, are dropped instead of being delivered.
+   * Default is 10 seconds.
+   */
+  maxAgeMs?: number;
+}
+
+export interface MessageQueueStats {
+  depth: number;
+  priorityDepth: number;
+  maxDepth: number;
+  inFlight: number;
+  enqueued: number;
+  delivered: number;
+  droppedOldest: number;
+  droppedNewest: number;
+  coalesced: number;
+}
+
+export interface LatencyHistogram {
+  count: number;
+  meanMs: number;
+  maxMs: number;
+  p50Ms: number;
+  p95Ms: number;
+  p99Ms: number;
+  /**
+   * Number of samples at or below `le` milliseconds and above the previous
+   * bucket. The last bucket has `le: -1` and counts everything slower.
+   */
+  buckets: { le: number; count: number }[];
+}
+
+export interface SavedStatesConfig {
+  /**
+   * Maximum number of saved states. Default is 50.
+   */
+  maxEntries?: number;
+  /**
+   * Maximum total size of the saved states, in bytes. Default is 16 MiB.
+   */
+  maxBytes?: number;
+}
+
+export interface SavedStatesSize {
+  entries: number;
+  bytes: number;
+  maxEntries: number;
+  maxBytes: number;
+}
+
+export interface NavigationMetrics {
+  /**
+   * Time covered by the counters, since the WebView was created or the
+   * metrics were last reset.
+   */
+  periodMs: number;
+  /**
+   * Navigations decided by `navigationRules`.
+   */
+  decidedByRules: number;
+  /**
+   * Navigations decided by a cached `onShouldStartLoadWithRequest` decision.
+   */
+  decidedFromCache: number;
+  /**
+   * Navigations `onShouldStartLoadWithRequest` was asked about while the UI
+   * thread waited.
+   */
+  askedSync: number;
+  /**
+   * Navigations `onShouldStartLoadWithRequest` was asked about with
+   * `shouldStartLoadMode` set to `async`.
+   */
+  askedAsync: number;
+  /**
+   * Navigations `onShouldStartLoadWithRequest` did not decide on within
+   * `shouldStartLoadTimeout`.
+   */
+  timeouts: number;
+  /**
+   * Total and longest time the UI thread was blocked waiting for
+   * `onShouldStartLoadWithRequest`.
+   */
+  blockedMs: number;
+  maxBlockedMs: number;
+  /**
+   * Time from asking `onShouldStartLoadWithRequest` to its decision reaching
+   * native code. Decisions that arrive after a timeout are only counted with
+   * the `defer` policy or in `async` mode.
+   */
+  decisionLatency: LatencyHistogram;
+}
+
+export interface BridgeMetrics {
+  /**
+   * Time covered by the counters, since the WebView was created or the
+   * metrics were last reset.
+   */
+  periodMs: number;
+  messagesReceived: number;
+  /**
+   * Messages that came through the JavascriptInterface fallback, used on
+   * WebViews without WebMessageListener support.
+   */
+  fallbackMessagesReceived: number;
+  /**
+   * Byte counts are approximate (UTF-16 size of the strings).
+   */
+  bytesReceived: number;
+  largestMessageBytes: number;
+  messagesPerSecond: number;
+  bytesPerSecond: number;
+  messagesDispatched: number;
+  /**
+   * Time from the page message reaching native code to its dispatch to
+   * React Native, including time spent in `messageBatching` and
+   * `messageQueue`.
+   */
+  dispatchLatency: LatencyHistogram;
+  /**
+   * Messages sent to the page with `postMessage()`.
+   */
+  messagesPosted: number;
+  bytesPosted: number;
+}
+
 export interface WebViewSourceUri {
   /**
    * The URI to load in the `WebView`. Can be a local or remote file.
@@ -270,9 +555,23 @@ export interface WebViewNativeConfig {
   viewManager?: ViewManager;
 }
 
+export interface ShouldStartLoadDecision {
+  shouldStart: boolean;
+  /**
+   * Reuse the decision for this many ms instead of calling
+   * `onShouldStartLoadWithRequest` again (Android only).
+   */
+  cacheTtlMs?: number;
+  /**
+   * Whether the cached decision applies to the exact URL (ignoring the
+   * fragment, the default) or to every URL of its host.
+   */
+  cacheScope?: 'url' | 'host';
+}
+
 export type OnShouldStartLoadWithRequest = (
   event: ShouldStartLoadRequest
-) => boolean;
+) => boolean | ShouldStartLoadDecision;
 
 export interface BasicAuthCredential {
   /**
@@ -1146,6 +1445,182 @@ export interface AndroidWebViewProps extends WebViewSharedProps {
    * @platform android
    */
   allowsProtectedMedia?: boolean;
+
+  /**
+   * Collects messages posted by the page and sends them to JS in a single
+   * event per frame (or per `intervalMs`) instead of one event per message.
+   * `onMessage` is still called once for every message, in order.
+   * Useful for pages that post many messages per second.
+   * @platform android
+   */
+  messageBatching?: MessageBatchingConfig;
+
+  /**
+   * When `true`, message events only carry `data`, `url` (the origin of the
+   * frame that posted the message) and `isMainFrame`. `title`, `loading`,
+   * `canGoBack` and `canGoForward` are left out, which saves several WebView
+   * calls per message. Useful for pages that post messages at a high rate.
+   * @platform android
+   */
+  leanMessageEvents?: boolean;
+
+  /**
+   * When `true`, messages that are a JSON object or array are parsed in
+   * native code on a background thread and delivered as `nativeEvent.json`,
+   * so JS does not have to call `JSON.parse`. Other messages, including
+   * malformed JSON, are delivered as `nativeEvent.data` as usual.
+   * @platform android
+   */
+  parseJsonMessages?: boolean;
+
+  /**
+   * Controls messages sent with
+   * `window.ReactNativeWebView.postLargeMessage(data, chunkSize)`, which
+   * splits `data` into pieces of `chunkSize` characters (rounded down, 256K
+   * by default) so that no single huge string has to cross into native code
+   * at once.
+   * @platform android
+   */
+  messageChunking?: MessageChunkingConfig;
+
+  /**
+   * Origins allowed to post messages, e.g.
+   * `['https://example.com', 'https://*.example.com']`. Uses the rule format
+   * of `WebViewCompat.addWebMessageListener`: `scheme://host[:port]`, where
+   * the host may start with `*.`, or `*` for every origin (the default).
+   * Messages from other frames are dropped inside the WebView before they
+   * reach the app. Changes apply from the next page load.
+   *
+   * On WebViews without WebMessageListener support, or when the first list
+   * set is rejected as invalid, only the URL of the main frame can be
+   * checked. Default ports are implied, `https://example.com:443` matches
+   * `https://example.com`.
+   * @platform android
+   */
+  messageOriginAllowlist?: string[];
+
+  /**
+   * Broadcast groups the WebView belongs to. `WebView.broadcastMessage(group,
+   * data)` sends `data` to every WebView of the group with a single call into
+   * native code, e.g. to push a theme or auth token to several WebViews at
+   * once. Pages receive it like a message sent with `postMessage`.
+   * @platform android
+   */
+  messageGroups?: string[];
+
+  /**
+   * Values pages can read synchronously with
+   * `window.ReactNativeWebViewStore.get(key)`, which returns a string or
+   * `null`. Numbers and booleans are read as their string form, objects and
+   * arrays as JSON. Reads never go through the JS thread, which makes the
+   * store a good fit for values needed during the first render such as the
+   * locale or feature flags. The store is only injected into the origins
+   * listed in `nativeStoreOrigins`.
+   *
+   * Changes apply from the next document: a page that is already loaded keeps
+   * the values it started with, so reload it to hand it new ones.
+   * @platform android
+   */
+  nativeStoreValues?: Record<string, unknown>;
+
+  /**
+   * Origins that can read `nativeStoreValues`, e.g.
+   * `['https://example.com', 'https://*.example.com']`, in the rule format of
+   * `messageOriginAllowlist`. The check is done by the WebView for every
+   * frame, iframes included. Without this prop no page gets the store. Avoid
+   * `*`, which hands the values to every page and third-party iframe. Like
+   * the values, changes apply from the next document.
+   *
+   * On WebViews without document-start script support, the store is only
+   * injected into the main frame, when the page starts loading, so scripts
+   * that run before that do not see it. A warning is logged in that case.
+   * @platform android
+   */
+  nativeStoreOrigins?: string[];
+
+  /**
+   * Rules that decide navigations in native code, without blocking on a
+   * round trip to `onShouldStartLoadWithRequest`. The first matching rule
+   * decides: `allow` loads the URL, `deny` blocks it, and `ask` hands it to JS
+   * as usual. URLs no rule matches also go to JS.
+   *
+   * Warning: `originWhitelist` is only checked in JS, so an `allow` rule
+   * overrides it. URLs an `allow` rule matches load in the WebView even when
+   * they are outside `originWhitelist`, instead of being opened with
+   * `Linking`. Keep `allow` rules at least as narrow as the whitelist.
+   * @platform android
+   */
+  navigationRules?: NavigationRule[];
+
+  /**
+   * How navigations wait for `onShouldStartLoadWithRequest`:
+   * - `sync` (default): the navigation blocks the UI thread until JS decides,
+   * for at most `shouldStartLoadTimeout`.
+   * - `async`: the navigation is cancelled right away, and loaded again with
+   * its original request headers once JS allows it. Slow decisions never
+   * block the UI thread, and `shouldStartLoadTimeout` does not apply. Only
+   * main frame navigations are handled this way.
+   * @platform android
+   */
+  shouldStartLoadMode?: 'sync' | 'async';
+
+  /**
+   * How long, in ms, a navigation waits for `onShouldStartLoadWithRequest`
+   * before `shouldStartLoadTimeoutPolicy` applies. Defaults to 250.
+   * @platform android
+   */
+  shouldStartLoadTimeout?: number;
+
+  /**
+   * What happens to a navigation `onShouldStartLoadWithRequest` did not
+   * decide on within `shouldStartLoadTimeout`:
+   * - `allow` (default): the URL loads.
+   * - `deny`: the navigation is blocked.
+   * - `defer`: the navigation is blocked, and the URL loads once
+   * `onShouldStartLoadWithRequest` allows it.
+   * @platform android
+   */
+  shouldStartLoadTimeoutPolicy?: 'allow' | 'deny' | 'defer';
+
+  /**
+   * Function that is invoked when `onShouldStartLoadWithRequest` did not
+   * decide on a navigation within `shouldStartLoadTimeout`, after the
+   * `shouldStartLoadTimeoutPolicy` was applied. Use it, together with
+   * `getNavigationMetrics()` on the WebView ref, to spot slow decisions.
+   * @platform android
+   */
+  onShouldStartLoadTimeout?: (
+    event: WebViewShouldStartLoadTimeoutEvent
+  ) => void;
+
+  /**
+   * Keeps page messages in a bounded queue while JS is busy instead of
+   * delivering all of them as they arrive. See `MessageQueueConfig` for the
+   * overflow policies and priority topics. Counters are available through
+   * `getMessageQueueStats()` on the WebView ref.
+   * @platform android
+   */
+  messageQueue?: MessageQueueConfig;
+
+  /**
+   * Holds messages the page posts while they cannot be delivered, e.g.
+   * before the WebView is fully set up or while it is remounted, and delivers
+   * them in order once it can. Without it such messages are lost.
+   * @platform android
+   */
+  messageReplayBuffer?: MessageReplayBufferConfig;
+
+  /**
+   * Function that answers calls made by the page with
+   * `window.ReactNativeWebView.request(data, { timeout, signal })`, which
+   * returns a Promise. The returned (or resolved) string is sent back to the
+   * frame that made the call; a thrown error rejects the page's Promise.
+   * Calls time out after `timeout` ms (10 seconds by default).
+   *
+   * Requires a WebView with WebMessageListener and document start script support.
+   * @platform android
+   */
+  onRequest?: (event: WebViewMessageEvent) => string | Promise<string>;
 }
 
 export interface WebViewSharedProps extends ViewProps {
@@ -1228,6 +1703,9 @@ export interface WebViewSharedProps extends ViewProps {
    *
    * `window.ReactNativeWebView.postMessage` accepts one argument, `data`, which will be
    * available on the event object, `event.nativeEvent.data`. `data` must be a string.
+   * On Android, when `window.ReactNativeWebView.arrayBufferSupported` is true, an
+   * `ArrayBuffer` can be posted as well and is received as `event.nativeEvent.blob`.
+   * This requires the app to resolve androidx.webkit 1.8.0 or later.
    */
   onMessage?: (event: WebViewMessageEvent) => void;
 
@@ -3,6 +3,7 @@ import { Linking } from 'react-native';
 import {
   defaultOriginWhitelist,
   createOnShouldStartLoadWithRequest,
+  expandMessageBatch,
 } from '../WebViewShared';
 
 Linking.openURL.mockResolvedValue(undefined);
@@ -320,4 +321,55 @@ describe('WebViewShared', () => {
       );
     });
   });
+
+  describe('cacheable navigation decisions', () => {
+    test('loadRequest receives the decision returned by onShouldStartLoadWithRequest', async () => {
+      const loadRequest = jest.fn();
+      const decision = { shouldStart: false, cacheTtlMs: 1000, cacheScope: 'host' };
+      const onShouldStartLoadWithRequest = createOnShouldStartLoadWithRequest(
+        loadRequest,
+        defaultOriginWhitelist,
+        () => decision
+      );
+
+      onShouldStartLoadWithRequest({
+        nativeEvent: { url: 'https://www.example.com/', lockIdentifier: 7 },
+      });
+
+      await flushPromises();
+
+      expect(loadRequest).toHaveBeenCalledWith(
+        false,
+        'https://www.example.com/',
+        7,
+        decision
+      );
+    });
+  });
+
+  describe('expandMessageBatch', () => {
+    test('returns single message events unchanged', () => {
+      const event = { nativeEvent: { url: 'https://a.com/', data: 'hello' } };
+
+      expect(expandMessageBatch(event)).toEqual([event]);
+    });
+
+    test('splits a batch into one event per message, in order', () => {
+      const event = {
+        nativeEvent: {
+          url: 'https://a.com/',
+          title: 'A',
+          messages: [
+            { data: 'first', url: 'https://a.com/' },
+            { data: 'second', url: 'https://b.com/' },
+          ],
+        },
+      };
+
+      expect(expandMessageBatch(event)).toEqual([
+        { nativeEvent: { url: 'https://a.com/', title: 'A', data: 'first' } },
+        { nativeEvent: { url: 'https://b.com/', title: 'A', data: 'second' } },
+      ]);
+    });
+  });
 });